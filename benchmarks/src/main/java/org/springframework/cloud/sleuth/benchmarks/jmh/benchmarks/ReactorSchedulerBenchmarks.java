@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.sleuth.autoconfig.TraceAutoConfiguration;
+import org.springframework.cloud.sleuth.instrument.async.AsyncAutoConfiguration;
+import org.springframework.cloud.sleuth.instrument.reactor.TraceReactorAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Measures the throughput of tiny tasks run on {@link Schedulers#parallel()} when each
+ * task gets its own span and when only the trace context is passed to the task. The
+ * operators are instrumented the same way in both cases. Passing only the trace context
+ * requires Reactor 3.3 or later.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ReactorSchedulerBenchmarks {
+
+	@Param({ "SPAN_PER_TASK", "TRACE_CONTEXT" })
+	String schedulerDecorationType;
+
+	ConfigurableApplicationContext context;
+
+	Tracer tracer;
+
+	Span span;
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(".*" + ReactorSchedulerBenchmarks.class.getSimpleName() + ".*")
+				.build();
+
+		new Runner(opt).run();
+	}
+
+	@Setup
+	public void setup() {
+		this.context = new SpringApplicationBuilder(SchedulerConfig.class)
+				.web(WebApplicationType.NONE).run("--spring.jmx.enabled=false",
+						"--spring.sleuth.reactor.scheduler-decoration-type="
+								+ this.schedulerDecorationType);
+		// recreate the cached schedulers so that they pick up the decoration
+		Schedulers.shutdownNow();
+		this.tracer = this.context.getBean(Tracing.class).tracer();
+		this.span = this.tracer.nextSpan().start();
+	}
+
+	@TearDown
+	public void clean() {
+		this.span.finish();
+		this.context.close();
+		Schedulers.shutdownNow();
+	}
+
+	@Benchmark
+	public Integer hundredTasksOnParallelScheduler() {
+		try (Tracer.SpanInScope ws = this.tracer.withSpanInScope(this.span)) {
+			return Flux.range(0, 100)
+					.flatMap(i -> Mono.just(i).subscribeOn(Schedulers.parallel()))
+					.blockLast();
+		}
+	}
+
+	@Configuration
+	@ImportAutoConfiguration({ TraceAutoConfiguration.class,
+			AsyncAutoConfiguration.class, TraceReactorAutoConfiguration.class })
+	static class SchedulerConfig {
+
+	}
+
+}
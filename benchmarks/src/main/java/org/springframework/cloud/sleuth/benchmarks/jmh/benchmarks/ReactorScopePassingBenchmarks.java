@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.reactivestreams.Publisher;
+import org.slf4j.MDC;
+import reactor.core.publisher.Flux;
+
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.sleuth.instrument.reactor.ReactorSleuth;
+
+/**
+ * Measures the cost of passing signals through the scope passing subscriber when the
+ * span is already in scope (the whole pipeline runs on a single thread), where
+ * {@code CurrentTraceContext#maybeScope} returns a noop scope, and when the scope has to
+ * be opened (and decorated) for every signal.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ReactorScopePassingBenchmarks {
+
+	Tracing tracing;
+
+	Span span;
+
+	Function<? super Publisher<Integer>, ? extends Publisher<Integer>> operator;
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(".*" + ReactorScopePassingBenchmarks.class.getSimpleName() + ".*")
+				.build();
+
+		new Runner(opt).run();
+	}
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.tracing = Tracing.newBuilder()
+				.currentTraceContext(ThreadLocalCurrentTraceContext.newBuilder()
+						.addScopeDecorator((context, scope) -> {
+							String previous = MDC.get("traceId");
+							MDC.put("traceId", context.traceIdString());
+							return () -> {
+								scope.close();
+								if (previous != null) {
+									MDC.put("traceId", previous);
+								}
+								else {
+									MDC.remove("traceId");
+								}
+							};
+						}).build())
+				.build();
+		this.span = this.tracing.tracer().nextSpan().start();
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("tracing", this.tracing);
+		this.operator = ReactorSleuth.scopePassingSpanOperator(beanFactory);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.span.finish();
+		this.tracing.close();
+	}
+
+	@Benchmark
+	public Integer signalsWithSpanAlreadyInScope() {
+		try (Tracer.SpanInScope ws = this.tracing.tracer().withSpanInScope(this.span)) {
+			return flux().blockLast();
+		}
+	}
+
+	@Benchmark
+	public Integer signalsWithSpanOnlyInReactorContext() {
+		return flux().subscriberContext(context -> context.put(Span.class, this.span))
+				.blockLast();
+	}
+
+	private Flux<Integer> flux() {
+		return Flux.range(0, 1000).hide().transform(this.operator);
+	}
+
+}
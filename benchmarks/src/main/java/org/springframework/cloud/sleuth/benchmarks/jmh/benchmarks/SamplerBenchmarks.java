@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import brave.sampler.Sampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.cloud.sleuth.sampler.ProbabilityBasedSampler;
+import org.springframework.cloud.sleuth.sampler.SamplerProperties;
+import org.springframework.cloud.sleuth.sampler.TraceIdProbabilityBasedSampler;
+
+/**
+ * Compares the contention of the counting {@link ProbabilityBasedSampler} with the
+ * lock-free {@link TraceIdProbabilityBasedSampler}. Run {@link #main(String[])} to
+ * execute the benchmarks with 1 to 64 threads.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SamplerBenchmarks {
+
+	final Sampler countingSampler = new ProbabilityBasedSampler(properties());
+
+	final Sampler traceIdSampler = new TraceIdProbabilityBasedSampler(properties());
+
+	public static void main(String[] args) throws RunnerException {
+		for (int threads = 1; threads <= 64; threads *= 2) {
+			Options opt = new OptionsBuilder()
+					.include(".*" + SamplerBenchmarks.class.getSimpleName() + ".*")
+					.threads(threads).build();
+
+			new Runner(opt).run();
+		}
+	}
+
+	private static SamplerProperties properties() {
+		SamplerProperties properties = new SamplerProperties();
+		properties.setProbability(0.1f);
+		return properties;
+	}
+
+	@Benchmark
+	public boolean countingSampler() {
+		return this.countingSampler.isSampled(ThreadLocalRandom.current().nextLong());
+	}
+
+	@Benchmark
+	public boolean traceIdSampler() {
+		return this.traceIdSampler.isSampled(ThreadLocalRandom.current().nextLong());
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.sleuth.instrument.web.SkipPathMatcher;
+import org.springframework.cloud.sleuth.instrument.web.SleuthWebProperties;
+
+/**
+ * Compares matching request paths against the combined skip pattern, made of the
+ * default pattern, the actuator endpoints and the management context path, with the
+ * {@link Pattern} and with the {@link SkipPathMatcher}.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class SkipPatternBenchmarks {
+
+	static final Pattern SKIP_PATTERN = Pattern
+			.compile(SleuthWebProperties.DEFAULT_SKIP_PATTERN
+					+ "|/actuator/(health|health/.*|info|info/.*|metrics|metrics/.*"
+					+ "|prometheus|prometheus/.*)|/management.*");
+
+	static final SkipPathMatcher SKIP_PATH_MATCHER = SkipPathMatcher
+			.compile(SKIP_PATTERN);
+
+	static final String[] TRACED_PATHS = { "/", "/api/v1/orders",
+			"/api/v1/orders/4c3a1e2b-98f1-4b9f-9d6e-0c1f2e3d4a5b/items",
+			"/customers/12345/addresses/home", "/graphql",
+			"/api/v2/catalog/products/search/by-category/electronics/laptops" };
+
+	static final String[] SKIPPED_PATHS = { "/favicon.ico", "/static/js/main.3f2a1b.js",
+			"/static/css/app.css", "/images/logo.png", "/actuator/health",
+			"/actuator/prometheus" };
+
+	@Param({ "traced", "skipped" })
+	String paths;
+
+	String[] urls;
+
+	int index;
+
+	@Setup
+	public void setup() {
+		this.urls = "traced".equals(this.paths) ? TRACED_PATHS : SKIPPED_PATHS;
+	}
+
+	@Benchmark
+	public boolean pattern() {
+		return SKIP_PATTERN.matcher(nextUrl()).matches();
+	}
+
+	@Benchmark
+	public boolean skipPathMatcher() {
+		return SKIP_PATH_MATCHER.matches(nextUrl());
+	}
+
+	private String nextUrl() {
+		String url = this.urls[this.index];
+		this.index = (this.index + 1) % this.urls.length;
+		return url;
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.integration.IntegrationAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.sleuth.autoconfig.TraceAutoConfiguration;
+import org.springframework.cloud.sleuth.instrument.messaging.TraceSpringIntegrationAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.dsl.IntegrationFlow;
+import org.springframework.integration.dsl.IntegrationFlows;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Measures sending a message through a Spring Integration flow of 5 direct channels with
+ * and without the tracing channel interceptor.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(Threads.MAX)
+public class SpringIntegrationBenchmarks {
+
+	@Benchmark
+	public boolean fiveChannelsWithoutSleuth(BenchmarkContext context) {
+		return context.untracedChannel.send(context.message);
+	}
+
+	@Benchmark
+	public boolean fiveChannelsWithSleuth(BenchmarkContext context) {
+		return context.tracedChannel.send(context.message);
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		volatile ConfigurableApplicationContext withSleuth;
+
+		volatile ConfigurableApplicationContext withoutSleuth;
+
+		volatile MessageChannel tracedChannel;
+
+		volatile MessageChannel untracedChannel;
+
+		volatile Message<String> message;
+
+		@Setup
+		public void setup() {
+			this.withSleuth = context("--spring.jmx.enabled=false");
+			this.withoutSleuth = context("--spring.jmx.enabled=false",
+					"--spring.sleuth.integration.enabled=false");
+			this.tracedChannel = this.withSleuth.getBean("channel1",
+					MessageChannel.class);
+			this.untracedChannel = this.withoutSleuth.getBean("channel1",
+					MessageChannel.class);
+			this.message = MessageBuilder.withPayload("hello").setHeader("foo", "bar")
+					.build();
+		}
+
+		private ConfigurableApplicationContext context(String... args) {
+			return new SpringApplicationBuilder(IntegrationConfig.class)
+					.web(WebApplicationType.NONE).run(args);
+		}
+
+		@TearDown
+		public void clean() {
+			this.withSleuth.close();
+			this.withoutSleuth.close();
+		}
+
+	}
+
+	@Configuration
+	@ImportAutoConfiguration({ IntegrationAutoConfiguration.class,
+			TraceAutoConfiguration.class,
+			TraceSpringIntegrationAutoConfiguration.class })
+	static class IntegrationConfig {
+
+		@Bean
+		IntegrationFlow fiveChannelsFlow() {
+			return IntegrationFlows.from("channel1").channel("channel2")
+					.channel("channel3").channel("channel4").channel("channel5")
+					.handle(message -> {
+					}).get();
+		}
+
+	}
+
+}
@@ -45,6 +45,8 @@ import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 import zipkin2.reporter.Reporter;
 
 import org.springframework.boot.SpringApplication;
@@ -166,6 +168,33 @@ public class SpringWebFluxBenchmarks {
 		get(tracedClient);
 	}
 
+	/**
+	 * Passes 100 elements through a 20 operator pipeline with a single thread hop.
+	 * @return last element
+	 */
+	@Benchmark
+	public Integer pipeline_resumeTrace() {
+		try (CurrentTraceContext.Scope scope = Tracing.current().currentTraceContext()
+				.newScope(defaultTraceContext)) {
+			return twentyOperators(Flux.range(0, 100)).blockLast();
+		}
+	}
+
+	static Flux<Integer> twentyOperators(Flux<Integer> flux) {
+		for (int i = 0; i < 20; i++) {
+			if (i == 10) {
+				flux = flux.publishOn(Schedulers.parallel());
+			}
+			else if (i % 2 == 0) {
+				flux = flux.map(element -> element + 1);
+			}
+			else {
+				flux = flux.filter(element -> element >= 0);
+			}
+		}
+		return flux;
+	}
+
 	@Benchmark
 	public void tracedClient_get_resumeTrace() throws Exception {
 		try (CurrentTraceContext.Scope scope = Tracing.current().currentTraceContext()
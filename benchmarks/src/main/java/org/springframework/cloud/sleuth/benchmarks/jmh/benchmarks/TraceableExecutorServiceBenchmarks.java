@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.benchmarks;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.sleuth.autoconfig.TraceAutoConfiguration;
+import org.springframework.cloud.sleuth.instrument.async.AsyncAutoConfiguration;
+import org.springframework.cloud.sleuth.instrument.async.TraceableExecutorService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Compares submitting no-op tasks to a raw {@link ThreadPoolExecutor} with submitting
+ * them through a {@link TraceableExecutorService} wrapping it.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class TraceableExecutorServiceBenchmarks {
+
+	private static final Runnable NO_OP = () -> {
+	};
+
+	@Benchmark
+	public Object rawThreadPoolExecutor(BenchmarkContext context) throws Exception {
+		return context.threadPoolExecutor.submit(NO_OP).get();
+	}
+
+	@Benchmark
+	public Object traceableExecutorService(BenchmarkContext context) throws Exception {
+		return context.traceableExecutorService.submit(NO_OP).get();
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		volatile ConfigurableApplicationContext context;
+
+		volatile ExecutorService threadPoolExecutor;
+
+		volatile ExecutorService traceableExecutorService;
+
+		@Setup
+		public void setup() {
+			this.context = new SpringApplicationBuilder(ExecutorConfig.class)
+					.web(WebApplicationType.NONE).run("--spring.jmx.enabled=false");
+			this.threadPoolExecutor = new ThreadPoolExecutor(4, 4, 0L,
+					TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+			this.traceableExecutorService = new TraceableExecutorService(
+					this.context.getBeanFactory(), this.threadPoolExecutor);
+		}
+
+		@TearDown
+		public void clean() {
+			this.threadPoolExecutor.shutdownNow();
+			this.context.close();
+		}
+
+	}
+
+	@Configuration
+	@ImportAutoConfiguration({ TraceAutoConfiguration.class,
+			AsyncAutoConfiguration.class })
+	static class ExecutorConfig {
+
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import brave.sampler.Sampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.cloud.sleuth.sampler.SamplerAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Compares the cost of a sampling decision made through the refresh scoped proxy with
+ * the one made by the sampler that swaps its delegate on environment change. Built only
+ * with the {@code refresh-scope} profile, as it needs {@code spring-cloud-context}.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(Threads.MAX)
+public class RefreshableSamplerBenchmarks {
+
+	@Benchmark
+	public boolean refreshScopedSampler(BenchmarkContext context) {
+		return context.refreshScopedSampler
+				.isSampled(ThreadLocalRandom.current().nextLong());
+	}
+
+	@Benchmark
+	public boolean refreshableSampler(BenchmarkContext context) {
+		return context.refreshableSampler
+				.isSampled(ThreadLocalRandom.current().nextLong());
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		volatile ConfigurableApplicationContext withRefreshScope;
+
+		volatile ConfigurableApplicationContext withoutRefreshScope;
+
+		volatile Sampler refreshScopedSampler;
+
+		volatile Sampler refreshableSampler;
+
+		@Setup
+		public void setup() {
+			this.withRefreshScope = context("--spring.jmx.enabled=false",
+					"--spring.cloud.bootstrap.enabled=false",
+					"--spring.sleuth.sampler.probability-type=trace_id");
+			this.withoutRefreshScope = context("--spring.jmx.enabled=false",
+					"--spring.cloud.bootstrap.enabled=false",
+					"--spring.sleuth.sampler.probability-type=trace_id",
+					"--spring.sleuth.sampler.refresh-scope.enabled=false");
+			this.refreshScopedSampler = this.withRefreshScope.getBean(Sampler.class);
+			this.refreshableSampler = this.withoutRefreshScope.getBean(Sampler.class);
+		}
+
+		private ConfigurableApplicationContext context(String... args) {
+			return new SpringApplicationBuilder(SamplerConfig.class)
+					.web(WebApplicationType.NONE).run(args);
+		}
+
+		@TearDown
+		public void clean() {
+			this.withRefreshScope.close();
+			this.withoutRefreshScope.close();
+		}
+
+	}
+
+	@Configuration
+	@ImportAutoConfiguration({ RefreshAutoConfiguration.class,
+			SamplerAutoConfiguration.class })
+	static class SamplerConfig {
+
+	}
+
+}
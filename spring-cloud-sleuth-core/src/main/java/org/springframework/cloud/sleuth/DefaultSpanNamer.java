@@ -19,6 +19,7 @@ package org.springframework.cloud.sleuth;
 import java.lang.reflect.Method;
 
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Default implementation of SpanNamer that tries to get the span name as follows:
@@ -45,6 +46,17 @@ import org.springframework.core.annotation.AnnotationUtils;
  */
 public class DefaultSpanNamer implements SpanNamer {
 
+	/**
+	 * Per class naming information, so that neither reflection nor building the default
+	 * {@code toString()} value is needed for each named object.
+	 */
+	private static final ClassValue<ClassNaming> CLASS_NAMING = new ClassValue<ClassNaming>() {
+		@Override
+		protected ClassNaming computeValue(Class<?> type) {
+			return new ClassNaming(type);
+		}
+	};
+
 	private static boolean isDefaultToString(Object delegate, String spanName) {
 		if (delegate instanceof Method) {
 			return delegate.toString().equals(spanName);
@@ -55,20 +67,39 @@ public class DefaultSpanNamer implements SpanNamer {
 
 	@Override
 	public String name(Object object, String defaultValue) {
-		SpanName annotation = annotation(object);
-		String spanName = annotation != null ? annotation.value() : object.toString();
+		if (object instanceof Method) {
+			SpanName annotation = AnnotationUtils.findAnnotation((Method) object,
+					SpanName.class);
+			String spanName = annotation != null ? annotation.value()
+					: object.toString();
+			return isDefaultToString(object, spanName) ? defaultValue : spanName;
+		}
+		ClassNaming classNaming = CLASS_NAMING.get(object.getClass());
+		if (classNaming.annotatedName != null) {
+			return classNaming.annotatedName;
+		}
 		// If there is no overridden toString method we'll put a constant value
-		if (isDefaultToString(object, spanName)) {
+		if (!classNaming.toStringOverridden) {
 			return defaultValue;
 		}
-		return spanName;
+		String spanName = object.toString();
+		return isDefaultToString(object, spanName) ? defaultValue : spanName;
 	}
 
-	private SpanName annotation(Object o) {
-		if (o instanceof Method) {
-			return AnnotationUtils.findAnnotation((Method) o, SpanName.class);
+	private static final class ClassNaming {
+
+		final String annotatedName;
+
+		final boolean toStringOverridden;
+
+		ClassNaming(Class<?> type) {
+			SpanName annotation = AnnotationUtils.findAnnotation(type, SpanName.class);
+			this.annotatedName = annotation != null ? annotation.value() : null;
+			Method toString = ReflectionUtils.findMethod(type, "toString");
+			this.toStringOverridden = toString != null
+					&& toString.getDeclaringClass() != Object.class;
 		}
-		return AnnotationUtils.findAnnotation(o.getClass(), SpanName.class);
+
 	}
 
 }
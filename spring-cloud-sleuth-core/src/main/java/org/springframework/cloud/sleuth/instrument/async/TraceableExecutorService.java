@@ -49,6 +49,8 @@ public class TraceableExecutorService implements ExecutorService {
 
 	BeanFactory beanFactory;
 
+	private volatile Resolved resolved;
+
 	public TraceableExecutorService(BeanFactory beanFactory,
 			final ExecutorService delegate) {
 		this(beanFactory, delegate, null);
@@ -63,8 +65,7 @@ public class TraceableExecutorService implements ExecutorService {
 
 	@Override
 	public void execute(Runnable command) {
-		this.delegate.submit(ContextUtil.isContextInCreation(this.beanFactory) ? command
-				: new TraceRunnable(tracing(), spanNamer(), command, this.spanName));
+		this.delegate.submit(wrap(command));
 	}
 
 	@Override
@@ -95,65 +96,88 @@ public class TraceableExecutorService implements ExecutorService {
 
 	@Override
 	public <T> Future<T> submit(Callable<T> task) {
-		return this.delegate.submit(ContextUtil.isContextInCreation(this.beanFactory)
-				? task
-				: new TraceCallable<>(tracing(), spanNamer(), task, this.spanName));
+		return this.delegate.submit(wrap(task));
 	}
 
 	@Override
 	public <T> Future<T> submit(Runnable task, T result) {
-		return this.delegate.submit(
-				ContextUtil.isContextInCreation(this.beanFactory) ? task
-						: new TraceRunnable(tracing(), spanNamer(), task, this.spanName),
-				result);
+		return this.delegate.submit(wrap(task), result);
 	}
 
 	@Override
 	public Future<?> submit(Runnable task) {
-		return this.delegate.submit(ContextUtil.isContextInCreation(this.beanFactory)
-				? task : new TraceRunnable(tracing(), spanNamer(), task, this.spanName));
+		return this.delegate.submit(wrap(task));
 	}
 
 	@Override
 	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks)
 			throws InterruptedException {
-		return this.delegate.invokeAll(ContextUtil.isContextInCreation(this.beanFactory)
-				? tasks : wrapCallableCollection(tasks));
+		return this.delegate.invokeAll(wrapCallableCollection(tasks));
 	}
 
 	@Override
 	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks,
 			long timeout, TimeUnit unit) throws InterruptedException {
-		return this.delegate.invokeAll(ContextUtil.isContextInCreation(this.beanFactory)
-				? tasks : wrapCallableCollection(tasks), timeout, unit);
+		return this.delegate.invokeAll(wrapCallableCollection(tasks), timeout, unit);
 	}
 
 	@Override
 	public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
 			throws InterruptedException, ExecutionException {
-		return this.delegate.invokeAny(ContextUtil.isContextInCreation(this.beanFactory)
-				? tasks : wrapCallableCollection(tasks));
+		return this.delegate.invokeAny(wrapCallableCollection(tasks));
 	}
 
 	@Override
 	public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout,
 			TimeUnit unit)
 			throws InterruptedException, ExecutionException, TimeoutException {
-		return this.delegate.invokeAny(ContextUtil.isContextInCreation(this.beanFactory)
-				? tasks : wrapCallableCollection(tasks), timeout, unit);
+		return this.delegate.invokeAny(wrapCallableCollection(tasks), timeout, unit);
 	}
 
 	private <T> Collection<? extends Callable<T>> wrapCallableCollection(
 			Collection<? extends Callable<T>> tasks) {
-		List<Callable<T>> ts = new ArrayList<>();
+		Resolved resolved = resolved();
+		if (resolved == null) {
+			return tasks;
+		}
+		List<Callable<T>> ts = new ArrayList<>(tasks.size());
 		for (Callable<T> task : tasks) {
 			if (!(task instanceof TraceCallable)) {
-				ts.add(new TraceCallable<>(tracing(), spanNamer(), task, this.spanName));
+				ts.add(resolved.wrap(task));
 			}
 		}
 		return ts;
 	}
 
+	Runnable wrap(Runnable task) {
+		Resolved resolved = resolved();
+		return resolved == null ? task : resolved.wrap(task);
+	}
+
+	<T> Callable<T> wrap(Callable<T> task) {
+		Resolved resolved = resolved();
+		return resolved == null ? task : resolved.wrap(task);
+	}
+
+	/**
+	 * Once the context got refreshed, the tracing components are resolved only once and
+	 * every subsequent task gets wrapped without any further lookups.
+	 * @return resolved tracing components or {@code null} if the context is still in
+	 * creation
+	 */
+	private Resolved resolved() {
+		Resolved resolved = this.resolved;
+		if (resolved != null) {
+			return resolved;
+		}
+		if (ContextUtil.isContextInCreation(this.beanFactory)) {
+			return null;
+		}
+		resolved = new Resolved(tracing(), spanNamer(), this.spanName);
+		this.resolved = resolved;
+		return resolved;
+	}
+
 	Tracing tracing() {
 		if (this.tracing == null && this.beanFactory != null) {
 			this.tracing = this.beanFactory.getBean(Tracing.class);
@@ -168,4 +192,32 @@ public class TraceableExecutorService implements ExecutorService {
 		return this.spanNamer;
 	}
 
+	/**
+	 * Fully initialized tracing components.
+	 */
+	private static final class Resolved {
+
+		private final Tracing tracing;
+
+		private final SpanNamer spanNamer;
+
+		private final String spanName;
+
+		private Resolved(Tracing tracing, SpanNamer spanNamer, String spanName) {
+			this.tracing = tracing;
+			this.spanNamer = spanNamer;
+			this.spanName = spanName;
+		}
+
+		Runnable wrap(Runnable task) {
+			return new TraceRunnable(this.tracing, this.spanNamer, task, this.spanName);
+		}
+
+		<T> Callable<T> wrap(Callable<T> task) {
+			return new TraceCallable<>(this.tracing, this.spanNamer, task,
+					this.spanName);
+		}
+
+	}
+
 }
@@ -44,36 +44,26 @@ public class TraceableScheduledExecutorService extends TraceableExecutorService
 
 	@Override
 	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
-		return getScheduledExecutorService().schedule(
-				ContextUtil.isContextInCreation(this.beanFactory) ? command
-						: new TraceRunnable(tracing(), spanNamer(), command),
-				delay, unit);
+		return getScheduledExecutorService().schedule(wrap(command), delay, unit);
 	}
 
 	@Override
 	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay,
 			TimeUnit unit) {
-		return getScheduledExecutorService().schedule(
-				ContextUtil.isContextInCreation(this.beanFactory) ? callable
-						: new TraceCallable<>(tracing(), spanNamer(), callable),
-				delay, unit);
+		return getScheduledExecutorService().schedule(wrap(callable), delay, unit);
 	}
 
 	@Override
 	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay,
 			long period, TimeUnit unit) {
-		return getScheduledExecutorService().scheduleAtFixedRate(
-				ContextUtil.isContextInCreation(this.beanFactory) ? command
-						: new TraceRunnable(tracing(), spanNamer(), command),
+		return getScheduledExecutorService().scheduleAtFixedRate(wrap(command),
 				initialDelay, period, unit);
 	}
 
 	@Override
 	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay,
 			long delay, TimeUnit unit) {
-		return getScheduledExecutorService().scheduleWithFixedDelay(
-				ContextUtil.isContextInCreation(this.beanFactory) ? command
-						: new TraceRunnable(tracing(), spanNamer(), command),
+		return getScheduledExecutorService().scheduleWithFixedDelay(wrap(command),
 				initialDelay, delay, unit);
 	}
 
@@ -17,12 +17,15 @@
 package org.springframework.cloud.sleuth.instrument.messaging;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import brave.propagation.B3SingleFormat;
 import brave.propagation.Propagation;
+import brave.propagation.TraceContext;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -41,12 +44,23 @@ enum MessageHeaderPropagation
 		implements Propagation.Setter<MessageHeaderAccessor, String>,
 		Propagation.Getter<MessageHeaderAccessor, String> {
 
-	INSTANCE;
+	/**
+	 * Writes both the B3 and the legacy ({@code spanTraceId} style) headers.
+	 */
+	INSTANCE(true),
+
+	/**
+	 * Writes only the B3 headers. The legacy headers are still read if the B3 ones are
+	 * missing.
+	 */
+	WITHOUT_LEGACY_HEADERS(false);
 
 	private static final Log log = LogFactory.getLog(MessageHeaderPropagation.class);
 
 	private static final Map<String, String> LEGACY_HEADER_MAPPING = new HashMap<>();
 
+	private static final String B3_NAME = "b3";
+
 	private static final String TRACE_ID_NAME = "X-B3-TraceId";
 
 	private static final String SPAN_ID_NAME = "X-B3-SpanId";
@@ -66,12 +80,19 @@ enum MessageHeaderPropagation
 		LEGACY_HEADER_MAPPING.put(FLAGS_NAME, TraceMessageHeaders.SPAN_FLAGS_NAME);
 	}
 
+	private final boolean writeLegacyHeaders;
+
+	MessageHeaderPropagation(boolean writeLegacyHeaders) {
+		this.writeLegacyHeaders = writeLegacyHeaders;
+	}
+
 	static Map<String, ?> propagationHeaders(Map<String, ?> headers,
 			List<String> propagationHeaders) {
 		Map<String, Object> headersToCopy = new HashMap<>();
-		for (Map.Entry<String, ?> entry : headers.entrySet()) {
-			if (propagationHeaders.contains(entry.getKey())) {
-				headersToCopy.put(entry.getKey(), entry.getValue());
+		for (String propagationHeader : propagationHeaders) {
+			Object value = headers.get(propagationHeader);
+			if (value != null) {
+				headersToCopy.put(propagationHeader, value);
 			}
 		}
 		return headersToCopy;
@@ -79,20 +100,83 @@ enum MessageHeaderPropagation
 
 	static void removeAnyTraceHeaders(MessageHeaderAccessor accessor,
 			List<String> keysToRemove) {
+		if (accessor instanceof NativeMessageHeaderAccessor) {
+			NativeMessageHeaderAccessor nativeAccessor = (NativeMessageHeaderAccessor) accessor;
+			for (String keyToRemove : keysToRemove) {
+				accessor.removeHeader(keyToRemove);
+				nativeAccessor.removeNativeHeader(keyToRemove);
+			}
+			return;
+		}
+		Object nativeHeaders = accessor
+				.getHeader(NativeMessageHeaderAccessor.NATIVE_HEADERS);
 		for (String keyToRemove : keysToRemove) {
 			accessor.removeHeader(keyToRemove);
-			if (accessor instanceof NativeMessageHeaderAccessor) {
-				NativeMessageHeaderAccessor nativeAccessor = (NativeMessageHeaderAccessor) accessor;
-				nativeAccessor.removeNativeHeader(keyToRemove);
+			if (nativeHeaders instanceof Map) {
+				((Map) nativeHeaders).remove(keyToRemove);
 			}
-			else {
-				Object nativeHeaders = accessor
-						.getHeader(NativeMessageHeaderAccessor.NATIVE_HEADERS);
-				if (nativeHeaders instanceof Map) {
-					((Map) nativeHeaders).remove(keyToRemove);
-				}
+		}
+	}
+
+	/**
+	 * @param propagationKeys keys used by the propagation
+	 * @return keys of the trace headers that should be removed from a message before
+	 * new ones get injected. If the legacy headers are not written, they get removed too
+	 * so that stale values are not passed along.
+	 */
+	List<String> traceHeaderKeys(List<String> propagationKeys) {
+		if (this.writeLegacyHeaders) {
+			return propagationKeys;
+		}
+		List<String> keys = new ArrayList<>(propagationKeys);
+		for (String key : propagationKeys) {
+			String legacyKey = LEGACY_HEADER_MAPPING.get(key);
+			if (legacyKey != null) {
+				keys.add(legacyKey);
 			}
 		}
+		return Collections.unmodifiableList(keys);
+	}
+
+	/**
+	 * @param propagationKeys keys used by the propagation
+	 * @return keys of the trace headers that should be removed from a message before
+	 * the trace context gets injected as a single {@code b3} header. The separate B3 and
+	 * legacy headers are not written then, so they get removed too.
+	 */
+	static List<String> b3SingleHeaderKeys(List<String> propagationKeys) {
+		List<String> keys = new ArrayList<>(propagationKeys);
+		keys.addAll(LEGACY_HEADER_MAPPING.values());
+		if (!keys.contains(B3_NAME)) {
+			keys.add(B3_NAME);
+		}
+		return Collections.unmodifiableList(keys);
+	}
+
+	/**
+	 * @param propagation propagation used by the tracing
+	 * @param setter setter of the message headers
+	 * @return injector writing the trace context to the message as a single binary
+	 * {@code b3} header instead of the separate B3 headers. The header is set without a
+	 * native header counterpart, so that the brokers can pass its bytes as they are. The
+	 * other propagated fields (e.g. baggage) are still written with the given setter.
+	 */
+	static TraceContext.Injector<MessageHeaderAccessor> b3SingleHeaderInjector(
+			Propagation<String> propagation,
+			Propagation.Setter<MessageHeaderAccessor, String> setter) {
+		Propagation.Setter<MessageHeaderAccessor, String> nonB3Setter = (accessor, key,
+				value) -> {
+			if (!LEGACY_HEADER_MAPPING.containsKey(key)) {
+				setter.put(accessor, key, value);
+			}
+		};
+		TraceContext.Injector<MessageHeaderAccessor> injector = propagation
+				.injector(nonB3Setter);
+		return (traceContext, accessor) -> {
+			injector.inject(traceContext, accessor);
+			accessor.setHeader(B3_NAME,
+					B3SingleFormat.writeB3SingleFormatAsBytes(traceContext));
+		};
 	}
 
 	@Override
@@ -106,6 +190,9 @@ enum MessageHeaderPropagation
 						+ "] from message", ex);
 			}
 		}
+		if (!this.writeLegacyHeaders) {
+			return;
+		}
 		String legacyKey = LEGACY_HEADER_MAPPING.get(key);
 		if (legacyKey != null) {
 			doPut(accessor, legacyKey, value);
@@ -66,6 +66,20 @@ public class SleuthMessagingProperties {
 		 */
 		private boolean enabled;
 
+		/**
+		 * When false, the legacy trace headers (e.g. {@code spanTraceId}) are not
+		 * written to the messages anymore. They are still read when the B3 headers are
+		 * missing.
+		 */
+		private boolean legacyHeaders = true;
+
+		/**
+		 * When true, the trace context is written to the messages as a single binary
+		 * {@code b3} header instead of the separate B3 and legacy headers. The separate
+		 * headers are still read when the {@code b3} one is missing.
+		 */
+		private boolean b3SingleHeader;
+
 		public String[] getPatterns() {
 			return this.patterns;
 		}
@@ -82,6 +96,22 @@ public class SleuthMessagingProperties {
 			this.enabled = enabled;
 		}
 
+		public boolean isLegacyHeaders() {
+			return this.legacyHeaders;
+		}
+
+		public void setLegacyHeaders(boolean legacyHeaders) {
+			this.legacyHeaders = legacyHeaders;
+		}
+
+		public boolean isB3SingleHeader() {
+			return this.b3SingleHeader;
+		}
+
+		public void setB3SingleHeader(boolean b3SingleHeader) {
+			this.b3SingleHeader = b3SingleHeader;
+		}
+
 	}
 
 	/**
@@ -181,6 +211,12 @@ public class SleuthMessagingProperties {
 
 		private String remoteServiceName = "kafka";
 
+		/**
+		 * Maximum number of records of a batch for which a span is created in the trace
+		 * of the record's producer. The whole batch gets a single span regardless.
+		 */
+		private int maxBatchRecordSpans = 10;
+
 		public boolean isEnabled() {
 			return this.enabled;
 		}
@@ -197,6 +233,14 @@ public class SleuthMessagingProperties {
 			this.remoteServiceName = remoteServiceName;
 		}
 
+		public int getMaxBatchRecordSpans() {
+			return this.maxBatchRecordSpans;
+		}
+
+		public void setMaxBatchRecordSpans(int maxBatchRecordSpans) {
+			this.maxBatchRecordSpans = maxBatchRecordSpans;
+		}
+
 	}
 
 	/**
@@ -17,14 +17,20 @@
 package org.springframework.cloud.sleuth.instrument.messaging;
 
 import java.lang.reflect.Field;
-import java.util.Arrays;
-import java.util.Optional;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import brave.Span;
 import brave.Tracer;
 import brave.Tracing;
 import brave.jms.JmsTracing;
 import brave.kafka.clients.KafkaTracing;
+import brave.propagation.TraceContext;
+import brave.propagation.TraceContextOrSamplingFlags;
 import brave.spring.rabbit.SpringRabbitTracing;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
@@ -33,6 +39,8 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -55,11 +63,14 @@ import org.springframework.cloud.sleuth.autoconfig.TraceAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Role;
+import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.ResolvableType;
 import org.springframework.jms.annotation.JmsListenerConfigurer;
 import org.springframework.jms.config.JmsListenerEndpointRegistry;
 import org.springframework.jms.config.TracingJmsListenerEndpointRegistry;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.BatchMessageListener;
 import org.springframework.kafka.listener.MessageListener;
 import org.springframework.kafka.listener.MessageListenerContainer;
 import org.springframework.kafka.listener.adapter.MessagingMessageListenerAdapter;
@@ -121,8 +132,10 @@ public class TraceMessagingAutoConfiguration {
 		@Bean
 		// for tests
 		@ConditionalOnMissingBean
-		SleuthKafkaAspect sleuthKafkaAspect(KafkaTracing kafkaTracing, Tracer tracer) {
-			return new SleuthKafkaAspect(kafkaTracing, tracer);
+		SleuthKafkaAspect sleuthKafkaAspect(KafkaTracing kafkaTracing, Tracing tracing,
+				SleuthMessagingProperties properties) {
+			return new SleuthKafkaAspect(kafkaTracing, tracing,
+					properties.getMessaging().getKafka().getMaxBatchRecordSpans());
 		}
 
 	}
@@ -214,11 +227,20 @@ class SleuthKafkaAspect {
 
 	private final KafkaTracing kafkaTracing;
 
-	private final Tracer tracer;
+	private final Tracing tracing;
 
-	SleuthKafkaAspect(KafkaTracing kafkaTracing, Tracer tracer) {
+	private final int maxBatchRecordSpans;
+
+	SleuthKafkaAspect(KafkaTracing kafkaTracing, Tracing tracing) {
+		this(kafkaTracing, tracing,
+				MessageListenerMethodInterceptor.DEFAULT_MAX_BATCH_RECORD_SPANS);
+	}
+
+	SleuthKafkaAspect(KafkaTracing kafkaTracing, Tracing tracing,
+			int maxBatchRecordSpans) {
 		this.kafkaTracing = kafkaTracing;
-		this.tracer = tracer;
+		this.tracing = tracing;
+		this.maxBatchRecordSpans = maxBatchRecordSpans;
 		this.recordMessageConverter = ReflectionUtils.findField(
 				MessagingMessageListenerAdapter.class, "recordMessageConverter");
 	}
@@ -260,12 +282,14 @@ class SleuthKafkaAspect {
 					log.debug("No message listener to wrap. Proceeding");
 				}
 			}
-			else if (someMessageListener instanceof MessageListener) {
+			else if (someMessageListener instanceof MessageListener
+					|| someMessageListener instanceof BatchMessageListener) {
 				container.setupMessageListener(createProxy(someMessageListener));
 			}
 			else {
 				if (log.isDebugEnabled()) {
-					log.debug("ATM we don't support Batch message listeners");
+					log.debug("Unsupported message listener type ["
+							+ someMessageListener.getClass() + "]. Proceeding");
 				}
 			}
 		}
@@ -281,54 +305,182 @@ class SleuthKafkaAspect {
 	Object createProxy(Object bean) {
 		ProxyFactoryBean factory = new ProxyFactoryBean();
 		factory.setProxyTargetClass(true);
-		factory.addAdvice(
-				new MessageListenerMethodInterceptor(this.kafkaTracing, this.tracer));
+		factory.addAdvice(new MessageListenerMethodInterceptor(this.kafkaTracing,
+				this.tracing, this.maxBatchRecordSpans));
 		factory.setTarget(bean);
 		return factory.getObject();
 	}
 
 }
 
-class MessageListenerMethodInterceptor<T extends MessageListener>
-		implements MethodInterceptor {
+/**
+ * Wraps the {@code onMessage} calls of record listeners in an {@code on-message} span
+ * and the ones of batch listeners in an {@code on-batch} span.
+ *
+ * <p>
+ * Zipkin has no span links, so a batch is tied to the traces of its records with
+ * {@code on-batch-record} spans. Each of them is a child of the context of a record's
+ * producer and points to the {@code on-batch} span via tags. Only the records among the
+ * first {@code maxBatchRecordSpans} of a batch that carry such a context get a span, the
+ * others would start traces linked to nothing. As for record listeners, the trace
+ * context headers of those records are removed when their span is created, while the
+ * remaining records of the batch keep them.
+ */
+class MessageListenerMethodInterceptor implements MethodInterceptor {
+
+	static final int DEFAULT_MAX_BATCH_RECORD_SPANS = 10;
 
 	private static final Log log = LogFactory
 			.getLog(MessageListenerMethodInterceptor.class);
 
+	private static final int NO_RECORDS_ARGUMENT = -1;
+
 	private final KafkaTracing kafkaTracing;
 
 	private final Tracer tracer;
 
-	MessageListenerMethodInterceptor(KafkaTracing kafkaTracing, Tracer tracer) {
+	private final TraceContext.Extractor<Headers> extractor;
+
+	private final List<String> propagationKeys;
+
+	private final int maxBatchRecordSpans;
+
+	// resolved from the method signature, as the listener of a proxy doesn't change
+	private final Map<Method, Integer> recordsArgumentIndexes = new ConcurrentHashMap<>();
+
+	MessageListenerMethodInterceptor(KafkaTracing kafkaTracing, Tracing tracing,
+			int maxBatchRecordSpans) {
 		this.kafkaTracing = kafkaTracing;
-		this.tracer = tracer;
+		this.tracer = tracing.tracer();
+		this.extractor = tracing.propagation()
+				.extractor(MessageListenerMethodInterceptor::lastHeader);
+		this.propagationKeys = tracing.propagation().keys();
+		this.maxBatchRecordSpans = maxBatchRecordSpans;
 	}
 
 	@Override
 	public Object invoke(MethodInvocation invocation) throws Throwable {
-		if (!"onMessage".equals(invocation.getMethod().getName())) {
+		Method method = invocation.getMethod();
+		if (!"onMessage".equals(method.getName())) {
 			return invocation.proceed();
 		}
 		Object[] arguments = invocation.getArguments();
-		Optional<Object> record = Arrays.stream(arguments)
-				.filter(o -> o instanceof ConsumerRecord).findFirst();
-		if (!record.isPresent()) {
-			return invocation.proceed();
+		Class<?> targetClass = invocation.getThis() != null
+				? invocation.getThis().getClass() : method.getDeclaringClass();
+		int index = this.recordsArgumentIndexes.computeIfAbsent(method,
+				m -> recordsArgumentIndex(m, targetClass));
+		Object records = index == NO_RECORDS_ARGUMENT || index >= arguments.length
+				? null : arguments[index];
+		if (records instanceof ConsumerRecord) {
+			return traceRecord(invocation, (ConsumerRecord<?, ?>) records);
+		}
+		if (records instanceof List && !((List<?>) records).isEmpty()
+				&& ((List<?>) records).get(0) instanceof ConsumerRecord) {
+			return traceBatch(invocation, (List<?>) records);
 		}
+		return invocation.proceed();
+	}
+
+	/**
+	 * Index of the first parameter that can hold a record or a list of records. The
+	 * parameter of {@code GenericMessageListener#onMessage} is a type variable that
+	 * can't be resolved e.g. for lambdas, so an {@link Object} parameter qualifies too.
+	 * The argument is checked on each call anyway.
+	 */
+	static int recordsArgumentIndex(Method method, Class<?> targetClass) {
+		Method bridged = BridgeMethodResolver.findBridgedMethod(method);
+		for (int i = 0; i < bridged.getParameterCount(); i++) {
+			ResolvableType type = ResolvableType.forMethodParameter(bridged, i,
+					targetClass);
+			Class<?> parameterType = type.resolve(Object.class);
+			if (parameterType == Object.class
+					|| ConsumerRecord.class.isAssignableFrom(parameterType)) {
+				return i;
+			}
+			if (List.class.isAssignableFrom(parameterType)) {
+				Class<?> elementType = type.asCollection().resolveGeneric(0);
+				if (elementType == null || elementType == Object.class
+						|| ConsumerRecord.class.isAssignableFrom(elementType)) {
+					return i;
+				}
+			}
+		}
+		return NO_RECORDS_ARGUMENT;
+	}
+
+	private Object traceRecord(MethodInvocation invocation, ConsumerRecord<?, ?> record)
+			throws Throwable {
 		if (log.isDebugEnabled()) {
 			log.debug("Wrapping onMessage call");
 		}
-		Span span = this.kafkaTracing.nextSpan((ConsumerRecord<?, ?>) record.get())
-				.name("on-message").start();
+		Span span = this.kafkaTracing.nextSpan(record).name("on-message").start();
+		return proceedInSpan(invocation, span);
+	}
+
+	private Object traceBatch(MethodInvocation invocation, List<?> records)
+			throws Throwable {
+		if (log.isDebugEnabled()) {
+			log.debug("Wrapping onMessage call for a batch of [" + records.size()
+					+ "] records");
+		}
+		Span span = this.tracer.nextSpan().name("on-batch")
+				.tag("kafka.batch.size", String.valueOf(records.size())).start();
+		List<Span> recordSpans = recordSpans(records, span);
+		try {
+			return proceedInSpan(invocation, span);
+		}
+		catch (RuntimeException | Error e) {
+			String message = errorMessage(e);
+			for (Span recordSpan : recordSpans) {
+				recordSpan.tag("error", message);
+			}
+			throw e;
+		}
+		finally {
+			for (Span recordSpan : recordSpans) {
+				recordSpan.finish();
+			}
+		}
+	}
+
+	private List<Span> recordSpans(List<?> records, Span batchSpan) {
+		int size = Math.min(records.size(), this.maxBatchRecordSpans);
+		if (size <= 0 || batchSpan.isNoop()) {
+			return new ArrayList<>(0);
+		}
+		String batchTraceId = batchSpan.context().traceIdString();
+		String batchSpanId = batchSpan.context().spanIdString();
+		List<Span> recordSpans = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Object record = records.get(i);
+			if (!(record instanceof ConsumerRecord)) {
+				continue;
+			}
+			Headers headers = ((ConsumerRecord<?, ?>) record).headers();
+			TraceContextOrSamplingFlags extracted = this.extractor.extract(headers);
+			if (extracted.context() == null) {
+				continue;
+			}
+			for (String key : this.propagationKeys) {
+				headers.remove(key);
+			}
+			Span recordSpan = this.tracer.nextSpan(extracted).name("on-batch-record");
+			if (!recordSpan.isNoop()) {
+				recordSpan.tag("kafka.batch.trace_id", batchTraceId)
+						.tag("kafka.batch.span_id", batchSpanId).start();
+				recordSpans.add(recordSpan);
+			}
+		}
+		return recordSpans;
+	}
+
+	private Object proceedInSpan(MethodInvocation invocation, Span span)
+			throws Throwable {
 		try (Tracer.SpanInScope ws = this.tracer.withSpanInScope(span)) {
 			return invocation.proceed();
 		}
 		catch (RuntimeException | Error e) {
-			String message = e.getMessage();
-			if (message == null) {
-				message = e.getClass().getSimpleName();
-			}
-			span.tag("error", message);
+			span.tag("error", errorMessage(e));
 			throw e;
 		}
 		finally {
@@ -336,6 +488,17 @@ class MessageListenerMethodInterceptor<T extends MessageListener>
 		}
 	}
 
+	private static String lastHeader(Headers headers, String key) {
+		Header header = headers.lastHeader(key);
+		return header != null ? new String(header.value(), StandardCharsets.UTF_8)
+				: null;
+	}
+
+	private static String errorMessage(Throwable e) {
+		String message = e.getMessage();
+		return message != null ? message : e.getClass().getSimpleName();
+	}
+
 }
 
 class TracingJmsBeanPostProcessor implements BeanPostProcessor {
@@ -62,21 +62,32 @@ public class TraceSpringIntegrationAutoConfiguration {
 	@Bean
 	TracingChannelInterceptor traceChannelInterceptor(Tracing tracing,
 			Propagation.Setter<MessageHeaderAccessor, String> traceMessagePropagationSetter,
-			Propagation.Getter<MessageHeaderAccessor, String> traceMessagePropagationGetter) {
+			Propagation.Getter<MessageHeaderAccessor, String> traceMessagePropagationGetter,
+			SleuthMessagingProperties properties) {
 		return new TracingChannelInterceptor(tracing, traceMessagePropagationSetter,
-				traceMessagePropagationGetter);
+				traceMessagePropagationGetter,
+				properties.getIntegration().isB3SingleHeader());
 	}
 
 	@Bean
 	@ConditionalOnMissingBean
-	Propagation.Setter<MessageHeaderAccessor, String> traceMessagePropagationSetter() {
-		return MessageHeaderPropagation.INSTANCE;
+	Propagation.Setter<MessageHeaderAccessor, String> traceMessagePropagationSetter(
+			SleuthMessagingProperties properties) {
+		return messageHeaderPropagation(properties);
 	}
 
 	@Bean
 	@ConditionalOnMissingBean
-	Propagation.Getter<MessageHeaderAccessor, String> traceMessagePropagationGetter() {
-		return MessageHeaderPropagation.INSTANCE;
+	Propagation.Getter<MessageHeaderAccessor, String> traceMessagePropagationGetter(
+			SleuthMessagingProperties properties) {
+		return messageHeaderPropagation(properties);
+	}
+
+	private MessageHeaderPropagation messageHeaderPropagation(
+			SleuthMessagingProperties properties) {
+		return properties.getIntegration().isLegacyHeaders()
+				? MessageHeaderPropagation.INSTANCE
+				: MessageHeaderPropagation.WITHOUT_LEGACY_HEADERS;
 	}
 
 }
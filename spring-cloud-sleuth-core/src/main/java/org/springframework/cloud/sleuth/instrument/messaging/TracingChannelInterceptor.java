@@ -16,6 +16,9 @@
 
 package org.springframework.cloud.sleuth.instrument.messaging;
 
+import java.util.List;
+import java.util.Map;
+
 import brave.Span;
 import brave.SpanCustomizer;
 import brave.Tracer;
@@ -44,6 +47,7 @@ import org.springframework.messaging.support.ExecutorChannelInterceptor;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * This starts and propagates {@link Span.Kind#PRODUCER} span for each message sent (via
@@ -102,11 +106,16 @@ public final class TracingChannelInterceptor extends ChannelInterceptorAdapter
 
 	final boolean integrationObjectSupportPresent;
 
+	private final List<String> traceHeaderKeys;
+
 	private final boolean hasDirectChannelClass;
 
 	// special case of a Stream
 	private final Class<?> directWithAttributesChannelClass;
 
+	// channels are long lived, there's no need to classify and name them per message
+	private final Map<MessageChannel, ChannelInfo> channelInfos = new ConcurrentReferenceHashMap<>();
+
 	@Autowired
 	TracingChannelInterceptor(Tracing tracing) {
 		this(tracing, MessageHeaderPropagation.INSTANCE,
@@ -116,10 +125,29 @@ public final class TracingChannelInterceptor extends ChannelInterceptorAdapter
 	TracingChannelInterceptor(Tracing tracing,
 			Propagation.Setter<MessageHeaderAccessor, String> setter,
 			Propagation.Getter<MessageHeaderAccessor, String> getter) {
+		this(tracing, setter, getter, false);
+	}
+
+	TracingChannelInterceptor(Tracing tracing,
+			Propagation.Setter<MessageHeaderAccessor, String> setter,
+			Propagation.Getter<MessageHeaderAccessor, String> getter,
+			boolean b3SingleHeader) {
 		this.tracing = tracing;
 		this.tracer = tracing.tracer();
 		this.threadLocalSpan = ThreadLocalSpan.create(this.tracer);
-		this.injector = tracing.propagation().injector(setter);
+		if (b3SingleHeader) {
+			this.injector = MessageHeaderPropagation
+					.b3SingleHeaderInjector(tracing.propagation(), setter);
+			this.traceHeaderKeys = MessageHeaderPropagation
+					.b3SingleHeaderKeys(tracing.propagation().keys());
+		}
+		else {
+			this.injector = tracing.propagation().injector(setter);
+			this.traceHeaderKeys = setter instanceof MessageHeaderPropagation
+					? ((MessageHeaderPropagation) setter)
+							.traceHeaderKeys(tracing.propagation().keys())
+					: tracing.propagation().keys();
+		}
 		this.extractor = tracing.propagation().extractor(getter);
 		this.integrationObjectSupportPresent = ClassUtils.isPresent(
 				"org.springframework.integration.context.IntegrationObjectSupport", null);
@@ -170,8 +198,7 @@ public final class TracingChannelInterceptor extends ChannelInterceptorAdapter
 		MessageHeaderAccessor headers = mutableHeaderAccessor(retrievedMessage);
 		TraceContextOrSamplingFlags extracted = this.extractor.extract(headers);
 		Span span = this.threadLocalSpan.next(extracted);
-		MessageHeaderPropagation.removeAnyTraceHeaders(headers,
-				this.tracing.propagation().keys());
+		MessageHeaderPropagation.removeAnyTraceHeaders(headers, this.traceHeaderKeys);
 		this.injector.inject(span.context(), headers);
 		if (!span.isNoop()) {
 			span.kind(Span.Kind.PRODUCER).name("send").start();
@@ -183,27 +210,29 @@ public final class TracingChannelInterceptor extends ChannelInterceptorAdapter
 		}
 		Message<?> outputMessage = outputMessage(message, retrievedMessage, headers);
 		if (isDirectChannel(channel)) {
-			beforeHandle(outputMessage, channel, null);
+			// the message will be handled in this thread, the trace headers were just
+			// injected so there's no need to copy the headers once again
+			startHandleSpan(outputMessage, headers, channel);
 		}
 		return outputMessage;
 	}
 
 	private Message<?> outputMessage(Message<?> originalMessage,
 			Message<?> retrievedMessage, MessageHeaderAccessor additionalHeaders) {
-		MessageHeaderAccessor headers = MessageHeaderAccessor
-				.getMutableAccessor(originalMessage);
 		if (originalMessage.getPayload() instanceof MessagingException) {
+			MessageHeaderAccessor headers = MessageHeaderAccessor
+					.getMutableAccessor(originalMessage);
 			headers.copyHeaders(MessageHeaderPropagation.propagationHeaders(
-					additionalHeaders.getMessageHeaders(),
-					this.tracing.propagation().keys()));
+					additionalHeaders.getMessageHeaders(), this.traceHeaderKeys));
 			return new ErrorMessage((MessagingException) originalMessage.getPayload(),
 					isWebSockets(headers) ? headers.getMessageHeaders()
 							: new MessageHeaders(headers.getMessageHeaders()));
 		}
-		headers.copyHeaders(additionalHeaders.getMessageHeaders());
+		// the headers were copied from the retrieved message and the trace headers are
+		// already replaced, so the outbound headers are built from them directly
 		return new GenericMessage<>(retrievedMessage.getPayload(),
-				isWebSockets(headers) ? headers.getMessageHeaders()
-						: new MessageHeaders(headers.getMessageHeaders()));
+				isWebSockets(additionalHeaders) ? additionalHeaders.getMessageHeaders()
+						: new MessageHeaders(additionalHeaders.getMessageHeaders()));
 	}
 
 	private boolean isWebSockets(MessageHeaderAccessor headerAccessor) {
@@ -212,6 +241,20 @@ public final class TracingChannelInterceptor extends ChannelInterceptorAdapter
 	}
 
 	private boolean isDirectChannel(MessageChannel channel) {
+		return channelInfo(channel).directChannel;
+	}
+
+	private ChannelInfo channelInfo(MessageChannel channel) {
+		ChannelInfo channelInfo = this.channelInfos.get(channel);
+		if (channelInfo == null) {
+			channelInfo = new ChannelInfo(computeDirectChannel(channel),
+					SpanNameUtil.shorten(channelName(channel)));
+			this.channelInfos.put(channel, channelInfo);
+		}
+		return channelInfo;
+	}
+
+	private boolean computeDirectChannel(MessageChannel channel) {
 		Class<?> targetClass = AopUtils.getTargetClass(channel);
 		boolean directChannel = this.hasDirectChannelClass
 				&& DirectChannel.class.isAssignableFrom(targetClass);
@@ -256,8 +299,7 @@ public final class TracingChannelInterceptor extends ChannelInterceptorAdapter
 		MessageHeaderAccessor headers = mutableHeaderAccessor(message);
 		TraceContextOrSamplingFlags extracted = this.extractor.extract(headers);
 		Span span = this.threadLocalSpan.next(extracted);
-		MessageHeaderPropagation.removeAnyTraceHeaders(headers,
-				this.tracing.propagation().keys());
+		MessageHeaderPropagation.removeAnyTraceHeaders(headers, this.traceHeaderKeys);
 		this.injector.inject(span.context(), headers);
 		if (!span.isNoop()) {
 			span.kind(Span.Kind.CONSUMER).name("receive").start();
@@ -295,6 +337,25 @@ public final class TracingChannelInterceptor extends ChannelInterceptorAdapter
 			return message;
 		}
 		MessageHeaderAccessor headers = mutableHeaderAccessor(message);
+		startHandleSpan(message, headers, channel);
+		// remove any trace headers, but don't re-inject as we are synchronously
+		// processing the
+		// message and can rely on scoping to access this span later.
+		MessageHeaderPropagation.removeAnyTraceHeaders(headers, this.traceHeaderKeys);
+		if (message instanceof ErrorMessage) {
+			return new ErrorMessage((Throwable) message.getPayload(),
+					headers.getMessageHeaders());
+		}
+		headers.setImmutable();
+		return new GenericMessage<>(message.getPayload(), headers.getMessageHeaders());
+	}
+
+	/**
+	 * Starts and finishes a consumer span as a child of the context extracted from the
+	 * headers, then creates a span for the handler, placing it in scope.
+	 */
+	private void startHandleSpan(Message<?> message, MessageHeaderAccessor headers,
+			MessageChannel channel) {
 		TraceContextOrSamplingFlags extracted = this.extractor.extract(headers);
 		// Start and finish a consumer span as we will immediately process it.
 		Span consumerSpan = this.tracer.nextSpan(extracted);
@@ -308,20 +369,9 @@ public final class TracingChannelInterceptor extends ChannelInterceptorAdapter
 		this.threadLocalSpan
 				.next(TraceContextOrSamplingFlags.create(consumerSpan.context()))
 				.name("handle").start();
-		// remove any trace headers, but don't re-inject as we are synchronously
-		// processing the
-		// message and can rely on scoping to access this span later.
-		MessageHeaderPropagation.removeAnyTraceHeaders(headers,
-				this.tracing.propagation().keys());
 		if (log.isDebugEnabled()) {
 			log.debug("Created a new span in before handle" + consumerSpan);
 		}
-		if (message instanceof ErrorMessage) {
-			return new ErrorMessage((Throwable) message.getPayload(),
-					headers.getMessageHeaders());
-		}
-		headers.setImmutable();
-		return new GenericMessage<>(message.getPayload(), headers.getMessageHeaders());
 	}
 
 	@Override
@@ -367,7 +417,7 @@ public final class TracingChannelInterceptor extends ChannelInterceptorAdapter
 	}
 
 	private String messageChannelName(MessageChannel channel) {
-		return SpanNameUtil.shorten(channelName(channel));
+		return channelInfo(channel).name;
 	}
 
 	void finishSpan(Exception error) {
@@ -404,4 +454,17 @@ public final class TracingChannelInterceptor extends ChannelInterceptorAdapter
 		return message == null;
 	}
 
+	private static final class ChannelInfo {
+
+		final boolean directChannel;
+
+		final String name;
+
+		private ChannelInfo(boolean directChannel, String name) {
+			this.directChannel = directChannel;
+			this.name = name;
+		}
+
+	}
+
 }
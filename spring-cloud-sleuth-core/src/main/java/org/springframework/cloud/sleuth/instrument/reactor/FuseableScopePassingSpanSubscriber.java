@@ -0,0 +1,85 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.reactor;
+
+import javax.annotation.Nullable;
+
+import brave.Span;
+import brave.Tracing;
+import brave.propagation.CurrentTraceContext;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+import reactor.util.context.Context;
+
+/**
+ * A {@link ScopePassingSpanSubscriber} that doesn't break fusion. Instead of always
+ * negotiating {@link Fuseable#NONE}, the requested fusion mode is passed to the upstream
+ * {@link Fuseable.QueueSubscription}. When fusion got established, the values pulled
+ * via {@link #poll()} are computed with the span in scope.
+ *
+ * @param <T> subscription type
+ * @since 2.2.0
+ */
+final class FuseableScopePassingSpanSubscriber<T> extends ScopePassingSpanSubscriber<T> {
+
+	private Fuseable.QueueSubscription<T> qs;
+
+	FuseableScopePassingSpanSubscriber(Subscriber<? super T> subscriber, Context ctx,
+			Tracing tracing, @Nullable Span root) {
+		super(subscriber, ctx, tracing, root);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void onSubscribe(Subscription subscription) {
+		if (subscription instanceof Fuseable.QueueSubscription) {
+			this.qs = (Fuseable.QueueSubscription<T>) subscription;
+		}
+		super.onSubscribe(subscription);
+	}
+
+	@Override
+	public int requestFusion(int requestedMode) {
+		return this.qs != null ? this.qs.requestFusion(requestedMode) : Fuseable.NONE;
+	}
+
+	@Override
+	public T poll() {
+		try (CurrentTraceContext.Scope scope = maybeScope()) {
+			return this.qs.poll();
+		}
+	}
+
+	@Override
+	public int size() {
+		return this.qs != null ? this.qs.size() : 0;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.qs == null || this.qs.isEmpty();
+	}
+
+	@Override
+	public void clear() {
+		if (this.qs != null) {
+			this.qs.clear();
+		}
+	}
+
+}
@@ -16,6 +16,10 @@
 
 package org.springframework.cloud.sleuth.instrument.reactor;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiPredicate;
 import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 
@@ -28,6 +32,7 @@ import reactor.core.CoreSubscriber;
 import reactor.core.Fuseable;
 import reactor.core.Scannable;
 import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.context.Context;
 
 import org.springframework.beans.factory.BeanFactory;
@@ -43,6 +48,38 @@ public abstract class ReactorSleuth {
 
 	private static final Log log = LogFactory.getLog(ReactorSleuth.class);
 
+	/**
+	 * Reactor's operators that run on a scheduler. Not all of them expose it via
+	 * {@link Scannable.Attr#RUN_ON}, e.g. {@code FluxSubscribeOn} and
+	 * {@code ParallelRunOn}.
+	 */
+	private static final Set<String> SCHEDULER_OPERATORS = new HashSet<>(
+			Arrays.asList("reactor.core.publisher.FluxPublishOn",
+					"reactor.core.publisher.FluxSubscribeOn",
+					"reactor.core.publisher.FluxSubscribeOnCallable",
+					"reactor.core.publisher.FluxSubscribeOnValue",
+					"reactor.core.publisher.MonoPublishOn",
+					"reactor.core.publisher.MonoSubscribeOn",
+					"reactor.core.publisher.MonoSubscribeOnCallable",
+					"reactor.core.publisher.MonoSubscribeOnValue",
+					"reactor.core.publisher.ParallelRunOn"));
+
+	/**
+	 * Reactor's operators created by {@link Operators#lift}, e.g. by hooks that were
+	 * registered before Sleuth's. They wrap the actual operator.
+	 */
+	private static final Set<String> LIFT_OPERATORS = new HashSet<>(
+			Arrays.asList("reactor.core.publisher.ConnectableLift",
+					"reactor.core.publisher.ConnectableLiftFuseable",
+					"reactor.core.publisher.FluxLift",
+					"reactor.core.publisher.FluxLiftFuseable",
+					"reactor.core.publisher.GroupedLift",
+					"reactor.core.publisher.GroupedLiftFuseable",
+					"reactor.core.publisher.MonoLift",
+					"reactor.core.publisher.MonoLiftFuseable",
+					"reactor.core.publisher.ParallelLift",
+					"reactor.core.publisher.ParallelLiftFuseable"));
+
 	private ReactorSleuth() {
 	}
 
@@ -57,9 +94,33 @@ public abstract class ReactorSleuth {
 	 * @param <T> an arbitrary type that is left unchanged by the span operator
 	 * @return a new lazy span operator pointcut
 	 */
-	@SuppressWarnings("unchecked")
 	public static <T> Function<? super Publisher<T>, ? extends Publisher<T>> scopePassingSpanOperator(
 			BeanFactory beanFactory) {
+		return scopePassingSpanOperator(beanFactory, (p, scannable) -> true);
+	}
+
+	/**
+	 * Return a span operator pointcut that passes the Scope of the Span only for
+	 * operators that can emit signals on a different thread than the one they were
+	 * subscribed on (e.g. {@code publishOn}, {@code subscribeOn}, {@code delay}). This
+	 * can be used with {@link reactor.core.publisher.Hooks#onEachOperator(Function)}
+	 * together with {@link #scopePassingSpanOperator(BeanFactory)} registered via
+	 * {@link reactor.core.publisher.Hooks#onLastOperator(Function)}, so that the scoping
+	 * cost grows with the number of thread hops instead of the number of operators.
+	 * @param beanFactory - {@link BeanFactory}
+	 * @param <T> an arbitrary type that is left unchanged by the span operator
+	 * @return a new lazy span operator pointcut
+	 * @since 2.2.0
+	 */
+	public static <T> Function<? super Publisher<T>, ? extends Publisher<T>> threadHopScopePassingSpanOperator(
+			BeanFactory beanFactory) {
+		return scopePassingSpanOperator(beanFactory, ReactorSleuth::isThreadHop);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Function<? super Publisher<T>, ? extends Publisher<T>> scopePassingSpanOperator(
+			BeanFactory beanFactory,
+			BiPredicate<Publisher<?>, Scannable> shouldDecorate) {
 		if (log.isTraceEnabled()) {
 			log.trace("Scope passing operator [" + beanFactory + "]");
 		}
@@ -74,6 +135,9 @@ public abstract class ReactorSleuth {
 				return sub;
 			}
 			Scannable scannable = Scannable.from(p);
+			if (!shouldDecorate.test(p, scannable)) {
+				return sub;
+			}
 			// rest of the logic unchanged...
 			if (isActive.getAsBoolean()) {
 				if (log.isTraceEnabled()) {
@@ -85,7 +149,7 @@ public abstract class ReactorSleuth {
 				}
 
 				return scopePassingSpanSubscription(beanFactory.getBean(Tracing.class),
-						sub);
+						sub, p instanceof Fuseable);
 			}
 			if (log.isTraceEnabled()) {
 				log.trace("Spring Context [" + beanFactory
@@ -98,6 +162,27 @@ public abstract class ReactorSleuth {
 		});
 	}
 
+	/**
+	 * Whether the operator can signal its subscriber on a different thread than the one
+	 * it was subscribed on.
+	 */
+	static boolean isThreadHop(Publisher<?> publisher, Scannable scannable) {
+		while (LIFT_OPERATORS.contains(publisher.getClass().getName())) {
+			Scannable lifted = scannable.scan(Scannable.Attr.PARENT);
+			if (!(lifted instanceof Publisher)) {
+				return false;
+			}
+			publisher = (Publisher<?>) lifted;
+			scannable = lifted;
+		}
+		Scannable runOn = scannable.scan(Scannable.Attr.RUN_ON);
+		if (runOn != null && runOn != Schedulers.immediate()) {
+			return true;
+		}
+		// not every scheduler based operator exposes the scheduler it runs on
+		return SCHEDULER_OPERATORS.contains(publisher.getClass().getName());
+	}
+
 	static <T> SpanSubscriptionProvider<T> lazyScopePassingSpanSubscription(
 			BeanFactory beanFactory, Scannable scannable, CoreSubscriber<? super T> sub) {
 		return new SpanSubscriptionProvider<>(beanFactory, sub, sub.currentContext(),
@@ -106,13 +191,32 @@ public abstract class ReactorSleuth {
 
 	static <T> CoreSubscriber<? super T> scopePassingSpanSubscription(Tracing tracing,
 			CoreSubscriber<? super T> sub) {
+		return scopePassingSpanSubscription(tracing, sub, false);
+	}
+
+	/**
+	 * Wraps the subscriber so that the span from the Reactor context (or the current
+	 * one) is in scope when the subscriber gets signalled.
+	 * @param tracing - {@link Tracing}
+	 * @param sub - subscriber to wrap
+	 * @param fuseable - whether the decorated publisher is {@link Fuseable}, in which
+	 * case the returned subscriber negotiates fusion with its upstream instead of
+	 * preventing it
+	 * @param <T> an arbitrary type that is left unchanged by the subscriber
+	 * @return wrapped subscriber or the passed one when there's no span to pass
+	 */
+	static <T> CoreSubscriber<? super T> scopePassingSpanSubscription(Tracing tracing,
+			CoreSubscriber<? super T> sub, boolean fuseable) {
 
 		Context context = sub.currentContext();
 
 		Span root = context.hasKey(Span.class) ? context.get(Span.class)
 				: tracing.tracer().currentSpan();
 		if (root != null) {
-			return new ScopePassingSpanSubscriber<>(sub, context, tracing, root);
+			return fuseable
+					? new FuseableScopePassingSpanSubscriber<>(sub, context, tracing,
+							root)
+					: new ScopePassingSpanSubscriber<>(sub, context, tracing, root);
 		}
 		else {
 			return sub; // no need to trace
@@ -36,7 +36,7 @@ import reactor.util.context.Context;
  * @author Marcin Grzejszczak
  * @since 2.0.0
  */
-final class ScopePassingSpanSubscriber<T> implements SpanSubscription<T>, Scannable {
+class ScopePassingSpanSubscriber<T> implements SpanSubscription<T>, Scannable {
 
 	private static final Log log = LogFactory.getLog(ScopePassingSpanSubscriber.class);
 
@@ -66,24 +66,21 @@ final class ScopePassingSpanSubscriber<T> implements SpanSubscription<T>, Scanna
 	@Override
 	public void onSubscribe(Subscription subscription) {
 		this.s = subscription;
-		try (CurrentTraceContext.Scope scope = this.currentTraceContext
-				.maybeScope(this.traceContext)) {
+		try (CurrentTraceContext.Scope scope = maybeScope()) {
 			this.subscriber.onSubscribe(this);
 		}
 	}
 
 	@Override
 	public void request(long n) {
-		try (CurrentTraceContext.Scope scope = this.currentTraceContext
-				.maybeScope(this.traceContext)) {
+		try (CurrentTraceContext.Scope scope = maybeScope()) {
 			this.s.request(n);
 		}
 	}
 
 	@Override
 	public void cancel() {
-		try (CurrentTraceContext.Scope scope = this.currentTraceContext
-				.maybeScope(this.traceContext)) {
+		try (CurrentTraceContext.Scope scope = maybeScope()) {
 			this.s.cancel();
 		}
 
@@ -91,28 +88,31 @@ final class ScopePassingSpanSubscriber<T> implements SpanSubscription<T>, Scanna
 
 	@Override
 	public void onNext(T o) {
-		try (CurrentTraceContext.Scope scope = this.currentTraceContext
-				.maybeScope(this.traceContext)) {
+		try (CurrentTraceContext.Scope scope = maybeScope()) {
 			this.subscriber.onNext(o);
 		}
 	}
 
 	@Override
 	public void onError(Throwable throwable) {
-		try (CurrentTraceContext.Scope scope = this.currentTraceContext
-				.maybeScope(this.traceContext)) {
+		try (CurrentTraceContext.Scope scope = maybeScope()) {
 			this.subscriber.onError(throwable);
 		}
 	}
 
 	@Override
 	public void onComplete() {
-		try (CurrentTraceContext.Scope scope = this.currentTraceContext
-				.maybeScope(this.traceContext)) {
+		try (CurrentTraceContext.Scope scope = maybeScope()) {
 			this.subscriber.onComplete();
 		}
 	}
 
+	// returns a noop scope, without calling the scope decorators, when the context is
+	// already the current one
+	CurrentTraceContext.Scope maybeScope() {
+		return this.currentTraceContext.maybeScope(this.traceContext);
+	}
+
 	@Override
 	public Context currentContext() {
 		return this.context;
@@ -24,7 +24,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * @author Marcin Grzejszczak
  * @since 2.0.2
  */
-@ConfigurationProperties("spring.sleuth.reactor.enabled")
+@ConfigurationProperties("spring.sleuth.reactor")
 public class SleuthReactorProperties {
 
 	/**
@@ -32,6 +32,27 @@ public class SleuthReactorProperties {
 	 */
 	private boolean enabled = true;
 
+	/**
+	 * Which Reactor operators get decorated to pass the tracing context.
+	 * {@code DECORATE_ON_EACH} decorates every operator, so the tracing context is
+	 * always in scope (e.g. for logging), at the cost of opening a scope for each signal
+	 * in each operator. {@code DECORATE_ON_THREAD_HOPS} decorates only the operators
+	 * that can switch threads (e.g. {@code publishOn}, {@code subscribeOn}) and the last
+	 * operator, which performs better for long pipelines, but the tracing context might
+	 * not be in scope in operators that follow a thread switch not exposed by Reactor.
+	 */
+	private InstrumentationType instrumentationType = InstrumentationType.DECORATE_ON_EACH;
+
+	/**
+	 * How tasks run by Reactor schedulers get traced. {@code SPAN_PER_TASK} wraps the
+	 * schedulers' executors so that each task gets its own span. {@code TRACE_CONTEXT}
+	 * only passes the trace context to the thread that runs the task, without creating
+	 * any spans, which is much cheaper for schedulers running lots of small tasks.
+	 * {@code TRACE_CONTEXT} requires Reactor 3.3 or later, otherwise
+	 * {@code SPAN_PER_TASK} is used.
+	 */
+	private SchedulerDecorationType schedulerDecorationType = SchedulerDecorationType.SPAN_PER_TASK;
+
 	public boolean isEnabled() {
 		return this.enabled;
 	}
@@ -40,4 +61,55 @@ public class SleuthReactorProperties {
 		this.enabled = enabled;
 	}
 
+	public InstrumentationType getInstrumentationType() {
+		return this.instrumentationType;
+	}
+
+	public void setInstrumentationType(InstrumentationType instrumentationType) {
+		this.instrumentationType = instrumentationType;
+	}
+
+	public SchedulerDecorationType getSchedulerDecorationType() {
+		return this.schedulerDecorationType;
+	}
+
+	public void setSchedulerDecorationType(
+			SchedulerDecorationType schedulerDecorationType) {
+		this.schedulerDecorationType = schedulerDecorationType;
+	}
+
+	/**
+	 * Types of Reactor instrumentation.
+	 */
+	public enum InstrumentationType {
+
+		/**
+		 * Decorates every operator.
+		 */
+		DECORATE_ON_EACH,
+
+		/**
+		 * Decorates only operators that can switch threads and the last operator.
+		 */
+		DECORATE_ON_THREAD_HOPS
+
+	}
+
+	/**
+	 * Types of Reactor scheduler decoration.
+	 */
+	public enum SchedulerDecorationType {
+
+		/**
+		 * Creates a span for each task run by a scheduler.
+		 */
+		SPAN_PER_TASK,
+
+		/**
+		 * Only passes the trace context to the thread that runs the task.
+		 */
+		TRACE_CONTEXT
+
+	}
+
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.reactor;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import brave.Tracing;
+import brave.propagation.CurrentTraceContext;
+import brave.propagation.TraceContext;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * A {@link reactor.core.scheduler.Schedulers#onScheduleHook(String, Function)} that
+ * passes the trace context that was current when the task got scheduled to the thread
+ * that runs it. Contrary to
+ * {@link org.springframework.cloud.sleuth.instrument.async.TraceableScheduledExecutorService}
+ * no spans are created, named or reported for the scheduled tasks.
+ *
+ * @since 2.2.0
+ */
+class TraceContextPropagatingScheduleHook implements Function<Runnable, Runnable> {
+
+	private final BeanFactory beanFactory;
+
+	private final BooleanSupplier isActive;
+
+	private volatile CurrentTraceContext currentTraceContext;
+
+	TraceContextPropagatingScheduleHook(BeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+		// Adapt if lazy bean factory
+		this.isActive = beanFactory instanceof ConfigurableApplicationContext
+				? ((ConfigurableApplicationContext) beanFactory)::isActive : () -> true;
+	}
+
+	@Override
+	public Runnable apply(Runnable runnable) {
+		CurrentTraceContext currentTraceContext = currentTraceContext();
+		if (currentTraceContext == null) {
+			return runnable;
+		}
+		TraceContext invocationContext = currentTraceContext.get();
+		if (invocationContext == null) {
+			return runnable;
+		}
+		return () -> {
+			try (CurrentTraceContext.Scope scope = currentTraceContext
+					.maybeScope(invocationContext)) {
+				runnable.run();
+			}
+		};
+	}
+
+	private CurrentTraceContext currentTraceContext() {
+		if (this.currentTraceContext == null && this.isActive.getAsBoolean()) {
+			this.currentTraceContext = this.beanFactory.getBean(Tracing.class)
+					.currentTraceContext();
+		}
+		return this.currentTraceContext;
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.sleuth.instrument.reactor;
 
+import java.util.function.Function;
+
 import javax.annotation.PreDestroy;
 
 import brave.Tracing;
@@ -35,11 +37,14 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.cloud.sleuth.instrument.async.TraceableScheduledExecutorService;
 import org.springframework.cloud.sleuth.instrument.web.TraceWebFluxAutoConfiguration;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
 
 /**
  * {@link org.springframework.boot.autoconfigure.EnableAutoConfiguration
@@ -53,10 +58,20 @@ import org.springframework.context.annotation.Configuration;
 @ConditionalOnProperty(value = "spring.sleuth.reactor.enabled", matchIfMissing = true)
 @ConditionalOnClass(Mono.class)
 @AutoConfigureAfter(TraceWebFluxAutoConfiguration.class)
+@EnableConfigurationProperties(SleuthReactorProperties.class)
 public class TraceReactorAutoConfiguration {
 
 	static final String SLEUTH_REACTOR_EXECUTOR_SERVICE_KEY = "sleuth";
 
+	// Schedulers.onScheduleHook was added in Reactor 3.3
+	static final boolean SCHEDULE_HOOK_PRESENT = ClassUtils.hasMethod(Schedulers.class,
+			"onScheduleHook", String.class, Function.class);
+
+	/**
+	 * Whether the schedule hook got registered, so that it's reset only then.
+	 */
+	static volatile boolean scheduleHookRegistered;
+
 	@Configuration
 	@ConditionalOnBean(Tracing.class)
 	static class TraceReactorConfiguration {
@@ -85,8 +100,13 @@ public class TraceReactorAutoConfiguration {
 				log.trace("Cleaning up hooks");
 			}
 			Hooks.resetOnEachOperator(SLEUTH_TRACE_REACTOR_KEY);
+			Hooks.resetOnLastOperator(SLEUTH_TRACE_REACTOR_KEY);
 			Schedulers
 					.removeExecutorServiceDecorator(SLEUTH_REACTOR_EXECUTOR_SERVICE_KEY);
+			if (scheduleHookRegistered) {
+				Schedulers.resetOnScheduleHook(SLEUTH_REACTOR_EXECUTOR_SERVICE_KEY);
+				scheduleHookRegistered = false;
+			}
 		}
 
 	}
@@ -96,6 +116,9 @@ public class TraceReactorAutoConfiguration {
 class HookRegisteringBeanDefinitionRegistryPostProcessor
 		implements BeanDefinitionRegistryPostProcessor {
 
+	private static final Log log = LogFactory
+			.getLog(HookRegisteringBeanDefinitionRegistryPostProcessor.class);
+
 	private final ConfigurableApplicationContext context;
 
 	HookRegisteringBeanDefinitionRegistryPostProcessor(
@@ -115,14 +138,50 @@ class HookRegisteringBeanDefinitionRegistryPostProcessor
 	}
 
 	void setupHooks(BeanFactory beanFactory) {
-		Hooks.onEachOperator(
-				TraceReactorAutoConfiguration.TraceReactorConfiguration.SLEUTH_TRACE_REACTOR_KEY,
-				ReactorSleuth.scopePassingSpanOperator(this.context));
-		Schedulers.setExecutorServiceDecorator(
-				TraceReactorAutoConfiguration.SLEUTH_REACTOR_EXECUTOR_SERVICE_KEY,
-				(scheduler,
-						scheduledExecutorService) -> new TraceableScheduledExecutorService(
-								beanFactory, scheduledExecutorService));
+		SleuthReactorProperties properties = Binder.get(this.context.getEnvironment())
+				.bind("spring.sleuth.reactor", SleuthReactorProperties.class)
+				.orElseGet(SleuthReactorProperties::new);
+		SleuthReactorProperties.InstrumentationType instrumentationType = properties
+				.getInstrumentationType();
+		if (instrumentationType == SleuthReactorProperties.InstrumentationType.DECORATE_ON_THREAD_HOPS) {
+			Hooks.onEachOperator(
+					TraceReactorAutoConfiguration.TraceReactorConfiguration.SLEUTH_TRACE_REACTOR_KEY,
+					ReactorSleuth.threadHopScopePassingSpanOperator(this.context));
+			Hooks.onLastOperator(
+					TraceReactorAutoConfiguration.TraceReactorConfiguration.SLEUTH_TRACE_REACTOR_KEY,
+					ReactorSleuth.scopePassingSpanOperator(this.context));
+		}
+		else {
+			Hooks.onEachOperator(
+					TraceReactorAutoConfiguration.TraceReactorConfiguration.SLEUTH_TRACE_REACTOR_KEY,
+					ReactorSleuth.scopePassingSpanOperator(this.context));
+		}
+		if (passesTraceContextOnly(properties)) {
+			Schedulers.onScheduleHook(
+					TraceReactorAutoConfiguration.SLEUTH_REACTOR_EXECUTOR_SERVICE_KEY,
+					new TraceContextPropagatingScheduleHook(this.context));
+			TraceReactorAutoConfiguration.scheduleHookRegistered = true;
+		}
+		else {
+			Schedulers.setExecutorServiceDecorator(
+					TraceReactorAutoConfiguration.SLEUTH_REACTOR_EXECUTOR_SERVICE_KEY,
+					(scheduler,
+							scheduledExecutorService) -> new TraceableScheduledExecutorService(
+									beanFactory, scheduledExecutorService));
+		}
+	}
+
+	private boolean passesTraceContextOnly(SleuthReactorProperties properties) {
+		if (properties
+				.getSchedulerDecorationType() != SleuthReactorProperties.SchedulerDecorationType.TRACE_CONTEXT) {
+			return false;
+		}
+		if (!TraceReactorAutoConfiguration.SCHEDULE_HOOK_PRESENT) {
+			log.warn("Scheduler decoration type [TRACE_CONTEXT] requires Reactor 3.3 "
+					+ "or later, falling back to [SPAN_PER_TASK]");
+			return false;
+		}
+		return true;
 	}
 
 }
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.web;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import brave.http.HttpAdapter;
+import brave.http.HttpSampler;
+import brave.sampler.CountingSampler;
+import brave.sampler.RateLimitingSampler;
+import brave.sampler.Sampler;
+
+/**
+ * Samples server requests separately for each route, so that a frequently called
+ * endpoint doesn't use up the rate of all the others and rarely called ones still get
+ * sampled. The route is the request path in which the identifier-like segments are
+ * replaced with {@code *}. The samplers are kept for at most
+ * {@link SleuthWebProperties.RouteSampler#getMaxRoutes()} routes, the least recently used
+ * ones are dropped first. The samplers of the configured
+ * {@link SleuthWebProperties.RouteSampler#getRoutes() routes} are always kept.
+ *
+ * @since 2.2.0
+ * @see SleuthWebProperties.RouteSampler
+ */
+class RouteHttpSampler extends HttpSampler {
+
+	private static final char ANY_SEGMENT = '*';
+
+	private static final int MIN_HEX_IDENTIFIER_LENGTH = 16;
+
+	private final SleuthWebProperties.RouteSampler properties;
+
+	private final Map<String, Sampler> configuredSamplers;
+
+	private final Map<String, RouteSampler> routeSamplers = new ConcurrentHashMap<>();
+
+	private final Sampler newRoutesSampler;
+
+	RouteHttpSampler(SleuthWebProperties.RouteSampler properties) {
+		this.properties = properties;
+		Map<String, Sampler> configuredSamplers = new HashMap<>();
+		validate("spring.sleuth.web.route-sampler", properties.getProbability(),
+				properties.getRate());
+		for (Map.Entry<String, SleuthWebProperties.Route> entry : properties.getRoutes()
+				.entrySet()) {
+			validate("spring.sleuth.web.route-sampler.routes[" + entry.getKey() + "]",
+					entry.getValue().getProbability(), entry.getValue().getRate());
+			configuredSamplers.put(entry.getKey(), newSampler(entry.getValue()));
+		}
+		this.configuredSamplers = configuredSamplers;
+		this.newRoutesSampler = sampler(properties.getProbability(),
+				properties.getRate());
+	}
+
+	private static void validate(String prefix, Float probability, Integer rate) {
+		if (probability != null && (probability < 0.0f || probability > 1.0f)) {
+			throw new IllegalArgumentException("[" + prefix
+					+ ".probability] must be between 0.0 and 1.0 but was ["
+					+ probability + "]");
+		}
+		if (rate != null && rate < 0) {
+			throw new IllegalArgumentException("[" + prefix
+					+ ".rate] must not be negative but was [" + rate + "]");
+		}
+	}
+
+	@Override
+	public <Req> Boolean trySample(HttpAdapter<Req, ?> adapter, Req request) {
+		String path = adapter.path(request);
+		if (path == null) {
+			return null;
+		}
+		return sampler(normalize(path)).isSampled(0L);
+	}
+
+	private Sampler sampler(String route) {
+		Sampler configured = this.configuredSamplers.get(route);
+		if (configured != null) {
+			return configured;
+		}
+		RouteSampler routeSampler = this.routeSamplers.get(route);
+		if (routeSampler != null) {
+			routeSampler.lastUsed = System.nanoTime();
+			return routeSampler.sampler;
+		}
+		RouteSampler newRouteSampler = new RouteSampler(
+				sampler(this.properties.getProbability(), this.properties.getRate()));
+		if (this.routeSamplers.putIfAbsent(route, newRouteSampler) == null
+				&& this.routeSamplers.size() > this.properties.getMaxRoutes()) {
+			evictLeastRecentlyUsed();
+		}
+		// the first request of a route is sampled with a budget shared by all the new
+		// routes, otherwise each of a stream of distinct paths (e.g. with names in them
+		// or a scanner's 404s) would get sampled by a fresh rate limiter
+		return this.newRoutesSampler;
+	}
+
+	private Sampler newSampler(SleuthWebProperties.Route config) {
+		Float probability = this.properties.getProbability();
+		int rate = this.properties.getRate();
+		if (config.getProbability() != null || config.getRate() != null) {
+			probability = config.getProbability();
+			rate = config.getRate() != null ? config.getRate() : rate;
+		}
+		return sampler(probability, rate);
+	}
+
+	private static Sampler sampler(Float probability, int rate) {
+		return probability != null ? CountingSampler.create(probability)
+				: RateLimitingSampler.create(rate);
+	}
+
+	/**
+	 * Drops a tenth of the routes at once, so that a stream of new routes doesn't sort
+	 * all the entries on each request.
+	 */
+	private synchronized void evictLeastRecentlyUsed() {
+		int maxRoutes = this.properties.getMaxRoutes();
+		if (this.routeSamplers.size() <= maxRoutes) {
+			return;
+		}
+		List<Map.Entry<String, RouteSampler>> entries = new ArrayList<>(
+				this.routeSamplers.entrySet());
+		entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastUsed));
+		int toEvict = entries.size() - maxRoutes + Math.max(1, maxRoutes / 10);
+		for (int i = 0; i < toEvict && i < entries.size(); i++) {
+			Map.Entry<String, RouteSampler> entry = entries.get(i);
+			this.routeSamplers.remove(entry.getKey(), entry.getValue());
+		}
+	}
+
+	Set<String> routes() {
+		return this.routeSamplers.keySet();
+	}
+
+	/**
+	 * Replaces the path segments that look like identifiers with {@code *} and removes
+	 * the trailing slash, so that e.g. {@code /orders/123/} becomes {@code /orders/*}.
+	 * @param path request path
+	 * @return normalized path
+	 */
+	static String normalize(String path) {
+		int end = path.length();
+		if (end > 1 && path.charAt(end - 1) == '/') {
+			end--;
+		}
+		StringBuilder normalized = null;
+		int segmentStart = 0;
+		for (int i = 0; i <= end; i++) {
+			if (i < end && path.charAt(i) != '/') {
+				continue;
+			}
+			boolean identifier = isIdentifier(path, segmentStart, i);
+			if (identifier && normalized == null) {
+				normalized = new StringBuilder(end).append(path, 0, segmentStart);
+			}
+			if (normalized != null) {
+				if (identifier) {
+					normalized.append(ANY_SEGMENT);
+				}
+				else {
+					normalized.append(path, segmentStart, i);
+				}
+				if (i < end) {
+					normalized.append('/');
+				}
+			}
+			segmentStart = i + 1;
+		}
+		if (normalized != null) {
+			return normalized.toString();
+		}
+		return end == path.length() ? path : path.substring(0, end);
+	}
+
+	/**
+	 * Numbers, UUIDs and long hexadecimal strings containing a digit.
+	 */
+	private static boolean isIdentifier(String path, int start, int end) {
+		if (start == end) {
+			return false;
+		}
+		boolean digitsOnly = true;
+		boolean hasDigit = false;
+		for (int i = start; i < end; i++) {
+			char c = path.charAt(i);
+			if (c >= '0' && c <= '9') {
+				hasDigit = true;
+				continue;
+			}
+			digitsOnly = false;
+			boolean hex = (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == '-';
+			if (!hex) {
+				return false;
+			}
+		}
+		return digitsOnly || (hasDigit && end - start >= MIN_HEX_IDENTIFIER_LENGTH);
+	}
+
+	private static final class RouteSampler {
+
+		final Sampler sampler;
+
+		volatile long lastUsed = System.nanoTime();
+
+		private RouteSampler(Sampler sampler) {
+			this.sampler = sampler;
+		}
+
+	}
+
+}
@@ -0,0 +1,456 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.web;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Matches paths against a skip {@link Pattern} without running the regular expression for
+ * the alternatives that are plain paths. The top level alternatives of the pattern are
+ * split into exact paths (e.g. {@code /favicon\.ico}), prefixes (e.g. {@code /swagger.*})
+ * and suffixes (e.g. {@code .*\.png}). Those are looked up in a hash set and in two
+ * character tries, so that a path is checked in a time proportional to its length. Paths
+ * with an unescaped {@code .}, as {@code /favicon.ico} in the default skip pattern, are
+ * compared character by character. Groups at the end of an alternative, as in the
+ * actuator pattern {@code /actuator/(health|health/.*)}, are expanded. Only the remaining
+ * alternatives are matched with a regular expression.
+ *
+ * @since 2.2.0
+ */
+public final class SkipPathMatcher {
+
+	private static final String ANY = ".*";
+
+	private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+	private final Pattern pattern;
+
+	private final boolean regexOnly;
+
+	private final Set<String> exactPaths = new HashSet<>();
+
+	private final Trie prefixes = new Trie();
+
+	private final Trie suffixes = new Trie();
+
+	private final List<WildcardPath> wildcardPaths = new ArrayList<>();
+
+	private final Pattern remaining;
+
+	private SkipPathMatcher(Pattern pattern) {
+		this.pattern = pattern;
+		// flags such as CASE_INSENSITIVE change the meaning of the literals
+		this.regexOnly = pattern.flags() != 0 || notSplittable(pattern.pattern());
+		List<String> remaining = new ArrayList<>();
+		if (!this.regexOnly) {
+			for (String alternative : alternatives(pattern.pattern())) {
+				if (!add(alternative)) {
+					remaining.add(alternative);
+				}
+			}
+		}
+		this.remaining = remaining.isEmpty() ? null
+				: Pattern.compile(String.join("|", remaining));
+	}
+
+	/**
+	 * @param pattern skip pattern
+	 * @return matcher that gives the same result as {@code pattern.matcher(path)
+	 * .matches()}
+	 */
+	public static SkipPathMatcher compile(Pattern pattern) {
+		return new SkipPathMatcher(pattern);
+	}
+
+	/**
+	 * @param path path of the request
+	 * @return {@code true} when the whole path matches the skip pattern
+	 */
+	public boolean matches(String path) {
+		// "." doesn't match line terminators, so the prefixes and suffixes would be
+		// too lenient
+		if (this.regexOnly || hasLineTerminator(path)) {
+			return this.pattern.matcher(path).matches();
+		}
+		if (this.exactPaths.contains(path) || this.prefixes.matchesStartOf(path)
+				|| this.suffixes.matchesEndOf(path) || matchesWildcardPath(path)) {
+			return true;
+		}
+		return this.remaining != null && this.remaining.matcher(path).matches();
+	}
+
+	private boolean matchesWildcardPath(String path) {
+		for (int i = 0; i < this.wildcardPaths.size(); i++) {
+			if (this.wildcardPaths.get(i).matches(path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return alternatives that are matched with a regular expression, or {@code null}
+	 */
+	String remaining() {
+		return this.remaining != null ? this.remaining.pattern() : null;
+	}
+
+	private boolean add(String alternative) {
+		String literal = literal(alternative);
+		if (literal != null) {
+			this.exactPaths.add(literal);
+			return true;
+		}
+		WildcardPath wildcardPath = wildcardPath(alternative);
+		if (wildcardPath != null) {
+			this.wildcardPaths.add(wildcardPath);
+			return true;
+		}
+		if (alternative.endsWith(ANY)) {
+			literal = literal(alternative.substring(0,
+					alternative.length() - ANY.length()));
+			if (literal != null) {
+				this.prefixes.add(literal, false);
+				return true;
+			}
+		}
+		if (alternative.startsWith(ANY)) {
+			literal = literal(alternative.substring(ANY.length()));
+			if (literal != null) {
+				this.suffixes.add(literal, true);
+				return true;
+			}
+		}
+		return expandTrailingGroup(alternative);
+	}
+
+	/**
+	 * Rewrites {@code prefix(a|b)} as {@code prefixa|prefixb}. All the resulting
+	 * alternatives have to be handled without a regular expression, otherwise the
+	 * original one is kept as it is.
+	 */
+	private boolean expandTrailingGroup(String alternative) {
+		int groupStart = trailingGroupStart(alternative);
+		if (groupStart < 0) {
+			return false;
+		}
+		String prefix = alternative.substring(0, groupStart);
+		List<String> expanded = new ArrayList<>();
+		for (String groupAlternative : alternatives(
+				alternative.substring(groupStart + 1, alternative.length() - 1))) {
+			String candidate = prefix + groupAlternative;
+			if (!isSimple(candidate)) {
+				return false;
+			}
+			expanded.add(candidate);
+		}
+		for (String candidate : expanded) {
+			add(candidate);
+		}
+		return true;
+	}
+
+	private boolean isSimple(String alternative) {
+		return wildcardPath(alternative) != null || (alternative.endsWith(ANY) && literal(
+				alternative.substring(0, alternative.length() - ANY.length())) != null);
+	}
+
+	/**
+	 * @return index of the opening parenthesis of a group that closes at the end of the
+	 * alternative and is preceded by a literal, or -1
+	 */
+	private static int trailingGroupStart(String alternative) {
+		if (!alternative.endsWith(")")) {
+			return -1;
+		}
+		for (int i = 0; i < alternative.length(); i++) {
+			char c = alternative.charAt(i);
+			if (c == '\\') {
+				i++;
+			}
+			else if (c == '[') {
+				return -1;
+			}
+			else if (c == '(') {
+				boolean groupClosesAtEnd = closingParenthesis(alternative,
+						i) == alternative.length() - 1;
+				return groupClosesAtEnd && literal(alternative.substring(0, i)) != null
+						? i : -1;
+			}
+		}
+		return -1;
+	}
+
+	private static int closingParenthesis(String regex, int open) {
+		int depth = 0;
+		for (int i = open; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			if (c == '\\') {
+				i++;
+			}
+			else if (c == '(') {
+				depth++;
+			}
+			else if (c == ')' && --depth == 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Inline flags apply to the following alternatives, quoted text can contain
+	 * {@code |} and back references depend on the groups before them, so such
+	 * expressions are kept whole.
+	 */
+	private static boolean notSplittable(String regex) {
+		for (int i = 0; i < regex.length() - 1; i++) {
+			char c = regex.charAt(i);
+			char next = regex.charAt(i + 1);
+			if (c == '\\') {
+				if (next == 'Q' || next == 'k' || Character.isDigit(next)) {
+					return true;
+				}
+				i++;
+			}
+			else if (c == '(' && next == '?') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Splits a regular expression on the top level {@code |}.
+	 */
+	static List<String> alternatives(String regex) {
+		List<String> alternatives = new ArrayList<>();
+		int depth = 0;
+		boolean inCharacterClass = false;
+		int start = 0;
+		for (int i = 0; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			if (c == '\\') {
+				i++;
+			}
+			else if (inCharacterClass) {
+				inCharacterClass = c != ']';
+			}
+			else if (c == '[') {
+				inCharacterClass = true;
+			}
+			else if (c == '(') {
+				depth++;
+			}
+			else if (c == ')') {
+				depth--;
+			}
+			else if (c == '|' && depth == 0) {
+				alternatives.add(regex.substring(start, i));
+				start = i + 1;
+			}
+		}
+		alternatives.add(regex.substring(start));
+		return alternatives;
+	}
+
+	/**
+	 * @return the string matched by the regular expression when it only consists of
+	 * literal characters, or {@code null}
+	 */
+	static String literal(String regex) {
+		StringBuilder literal = new StringBuilder(regex.length());
+		for (int i = 0; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			if (c == '\\') {
+				if (i + 1 == regex.length()) {
+					return null;
+				}
+				char escaped = regex.charAt(++i);
+				// \d, \Q, \1 etc. are not literals
+				if (Character.isLetterOrDigit(escaped)) {
+					return null;
+				}
+				literal.append(escaped);
+			}
+			else if (METACHARACTERS.indexOf(c) >= 0) {
+				return null;
+			}
+			else {
+				literal.append(c);
+			}
+		}
+		return literal.toString();
+	}
+
+	/**
+	 * @return the path matched by the regular expression when it only consists of
+	 * literal characters and {@code .}, or {@code null}
+	 */
+	static WildcardPath wildcardPath(String regex) {
+		StringBuilder chars = new StringBuilder(regex.length());
+		boolean[] any = new boolean[regex.length()];
+		for (int i = 0; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			if (c == '\\') {
+				if (i + 1 == regex.length()
+						|| Character.isLetterOrDigit(regex.charAt(i + 1))) {
+					return null;
+				}
+				chars.append(regex.charAt(++i));
+			}
+			else if (c == '.') {
+				any[chars.length()] = true;
+				chars.append(c);
+			}
+			else if (METACHARACTERS.indexOf(c) >= 0) {
+				return null;
+			}
+			else {
+				chars.append(c);
+			}
+		}
+		return new WildcardPath(chars.toString(), Arrays.copyOf(any, chars.length()));
+	}
+
+	private static boolean hasLineTerminator(String path) {
+		for (int i = 0; i < path.length(); i++) {
+			char c = path.charAt(i);
+			if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028'
+					|| c == '\u2029') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Path in which some characters match any character. Paths with line terminators,
+	 * which {@code .} doesn't match, are never checked against it.
+	 */
+	static final class WildcardPath {
+
+		private final String chars;
+
+		private final boolean[] any;
+
+		WildcardPath(String chars, boolean[] any) {
+			this.chars = chars;
+			this.any = any;
+		}
+
+		boolean matches(String path) {
+			if (path.length() != this.chars.length()) {
+				return false;
+			}
+			for (int i = 0; i < path.length(); i++) {
+				if (!this.any[i] && path.charAt(i) != this.chars.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+	/**
+	 * Character trie, read from the start of the path for prefixes and from its end for
+	 * suffixes.
+	 */
+	private static final class Trie {
+
+		private final Node root = new Node();
+
+		private boolean empty = true;
+
+		void add(String value, boolean reversed) {
+			Node node = this.root;
+			int length = value.length();
+			for (int i = 0; i < length; i++) {
+				node = node.child(value.charAt(reversed ? length - 1 - i : i));
+			}
+			node.terminal = true;
+			this.empty = false;
+		}
+
+		boolean matchesStartOf(String path) {
+			if (this.empty) {
+				return false;
+			}
+			Node node = this.root;
+			for (int i = 0; !node.terminal && i < path.length(); i++) {
+				node = node.find(path.charAt(i));
+				if (node == null) {
+					return false;
+				}
+			}
+			return node.terminal;
+		}
+
+		boolean matchesEndOf(String path) {
+			if (this.empty) {
+				return false;
+			}
+			Node node = this.root;
+			for (int i = path.length() - 1; !node.terminal && i >= 0; i--) {
+				node = node.find(path.charAt(i));
+				if (node == null) {
+					return false;
+				}
+			}
+			return node.terminal;
+		}
+
+	}
+
+	private static final class Node {
+
+		private char[] keys = new char[0];
+
+		private Node[] children = new Node[0];
+
+		private boolean terminal;
+
+		Node find(char key) {
+			for (int i = 0; i < this.keys.length; i++) {
+				if (this.keys[i] == key) {
+					return this.children[i];
+				}
+			}
+			return null;
+		}
+
+		Node child(char key) {
+			Node child = find(key);
+			if (child == null) {
+				child = new Node();
+				this.keys = Arrays.copyOf(this.keys, this.keys.length + 1);
+				this.children = Arrays.copyOf(this.children, this.children.length + 1);
+				this.keys[this.keys.length - 1] = key;
+				this.children[this.children.length - 1] = child;
+			}
+			return child;
+		}
+
+	}
+
+}
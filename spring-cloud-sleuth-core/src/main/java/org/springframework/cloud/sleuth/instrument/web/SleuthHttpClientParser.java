@@ -17,6 +17,8 @@
 package org.springframework.cloud.sleuth.instrument.web;
 
 import java.net.URI;
+import java.util.Collection;
+import java.util.Objects;
 
 import brave.SpanCustomizer;
 import brave.http.HttpAdapter;
@@ -27,6 +29,9 @@ import org.springframework.cloud.sleuth.util.SpanNameUtil;
 /**
  * An {@link HttpClientParser} that behaves like Sleuth in versions 1.x.
  *
+ * The URL of the request is built once per request and split into its scheme, host and
+ * path without going through {@link URI}.
+ *
  * @author Marcin Grzejszczak
  * @since 2.0.0
  */
@@ -42,53 +47,210 @@ class SleuthHttpClientParser extends HttpClientParser {
 
 	private final TraceKeys traceKeys;
 
+	private final SleuthHttpLegacyProperties.Tags tags;
+
+	private volatile HeaderTags headerTags;
+
 	SleuthHttpClientParser(TraceKeys traceKeys) {
+		this(traceKeys, SleuthHttpLegacyProperties.Tags.FULL);
+	}
+
+	SleuthHttpClientParser(TraceKeys traceKeys, SleuthHttpLegacyProperties.Tags tags) {
 		this.traceKeys = traceKeys;
+		this.tags = tags;
 	}
 
 	@Override
 	protected <Req> String spanName(HttpAdapter<Req, ?> adapter, Req req) {
-		return getName(URI.create(adapter.url(req)));
+		return getName(new ParsedUrl(adapter.url(req)));
 	}
 
+	/**
+	 * Doesn't call the super method, as it would resolve the URL for the span name and
+	 * the path again. The method and path tags it sets are overridden below anyway.
+	 */
 	@Override
 	public <Req> void request(HttpAdapter<Req, ?> adapter, Req req,
 			SpanCustomizer customizer) {
-		super.request(adapter, req, customizer);
 		String url = adapter.url(req);
-		URI uri = URI.create(url);
-		addRequestTags(customizer, url, uri.getHost(), uri.getPath(),
+		ParsedUrl parsedUrl = new ParsedUrl(url);
+		customizer.name(getName(parsedUrl));
+		addRequestTags(customizer, url, parsedUrl.host, parsedUrl.path(),
 				adapter.method(req));
-		this.traceKeys.getHttp().getHeaders().forEach(((s) -> {
-			String headerValue = adapter.requestHeader(req, s);
+		HeaderTags headerTags = headerTags();
+		for (int i = 0; i < headerTags.headers.length; i++) {
+			String headerValue = adapter.requestHeader(req, headerTags.headers[i]);
 			if (headerValue != null) {
-				customizer.tag(key(s), headerValue);
+				customizer.tag(headerTags.keys[i], headerValue);
 			}
-		}));
+		}
 	}
 
-	private String key(String key) {
-		return this.traceKeys.getHttp().getPrefix() + key.toLowerCase();
+	/**
+	 * The tag keys are computed again only when the headers or the prefix changed. The
+	 * headers are compared by their contents, as they can also be changed in place.
+	 */
+	private HeaderTags headerTags() {
+		TraceKeys.Http http = this.traceKeys.getHttp();
+		HeaderTags headerTags = this.headerTags;
+		if (headerTags == null
+				|| !headerTags.matches(http.getHeaders(), http.getPrefix())) {
+			headerTags = new HeaderTags(http.getHeaders(), http.getPrefix());
+			this.headerTags = headerTags;
+		}
+		return headerTags;
 	}
 
-	private String getName(URI uri) {
+	private String getName(ParsedUrl url) {
 		// The returned name should comply with RFC 882 - Section 3.1.2.
 		// i.e Header values must composed of printable ASCII values.
-		return SpanNameUtil.shorten(uriScheme(uri) + ":" + uri.getRawPath());
+		return SpanNameUtil.shorten(uriScheme(url) + ":" + url.rawPath);
 	}
 
-	private String uriScheme(URI uri) {
-		return uri.getScheme() == null ? "http" : uri.getScheme();
+	private String uriScheme(ParsedUrl url) {
+		return url.scheme == null ? "http" : url.scheme;
 	}
 
 	private void addRequestTags(SpanCustomizer customizer, String url, String host,
 			String path, String method) {
-		customizer.tag(URL_KEY, url);
-		if (host != null) {
+		if (this.tags == SleuthHttpLegacyProperties.Tags.FULL) {
+			customizer.tag(URL_KEY, url);
+		}
+		if (host != null && this.tags != SleuthHttpLegacyProperties.Tags.MINIMAL) {
 			customizer.tag(HOST_KEY, host);
 		}
 		customizer.tag(PATH_KEY, path);
 		customizer.tag(METHOD_KEY, method);
 	}
 
+	/**
+	 * Names of the headers to tag and their tag keys.
+	 */
+	private static final class HeaderTags {
+
+		final String prefix;
+
+		final String[] headers;
+
+		final String[] keys;
+
+		HeaderTags(Collection<String> source, String prefix) {
+			this.prefix = prefix;
+			this.headers = source.toArray(new String[0]);
+			this.keys = new String[this.headers.length];
+			for (int i = 0; i < this.headers.length; i++) {
+				this.keys[i] = prefix + this.headers[i].toLowerCase();
+			}
+		}
+
+		boolean matches(Collection<String> headers, String prefix) {
+			if (!Objects.equals(this.prefix, prefix)
+					|| this.headers.length != headers.size()) {
+				return false;
+			}
+			int i = 0;
+			for (String header : headers) {
+				if (!this.headers[i++].equals(header)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+	/**
+	 * Scheme, host and path of a URL, as returned by {@link URI#getScheme()},
+	 * {@link URI#getHost()} and {@link URI#getRawPath()}, read with a single scan of the
+	 * URL.
+	 */
+	static final class ParsedUrl {
+
+		final String url;
+
+		final String scheme;
+
+		final String host;
+
+		final String rawPath;
+
+		ParsedUrl(String url) {
+			this.url = url;
+			int schemeEnd = schemeEnd(url);
+			this.scheme = schemeEnd > 0 ? url.substring(0, schemeEnd) : null;
+			int position = schemeEnd > 0 ? schemeEnd + 1 : 0;
+			String host = null;
+			if (url.startsWith("//", position)) {
+				int authorityStart = position + 2;
+				position = indexOfAny(url, "/?#", authorityStart);
+				host = host(url, authorityStart, position);
+			}
+			this.host = host;
+			if (this.scheme != null && host == null
+					&& !url.startsWith("/", position)) {
+				// opaque URI such as mailto:foo@bar.com
+				this.rawPath = null;
+			}
+			else {
+				this.rawPath = url.substring(position,
+						indexOfAny(url, "?#", position));
+			}
+		}
+
+		/**
+		 * @return decoded path, as returned by {@link URI#getPath()}
+		 */
+		String path() {
+			if (this.rawPath == null || this.rawPath.indexOf('%') < 0) {
+				return this.rawPath;
+			}
+			return URI.create(this.url).getPath();
+		}
+
+		private static int schemeEnd(String url) {
+			for (int i = 0; i < url.length(); i++) {
+				char c = url.charAt(i);
+				if (c == ':') {
+					return i;
+				}
+				boolean letter = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+				boolean other = (c >= '0' && c <= '9') || c == '+' || c == '-'
+						|| c == '.';
+				if (!letter && (i == 0 || !other)) {
+					return -1;
+				}
+			}
+			return -1;
+		}
+
+		private static String host(String url, int start, int end) {
+			int userInfoEnd = url.lastIndexOf('@', end - 1);
+			if (userInfoEnd >= start) {
+				start = userInfoEnd + 1;
+			}
+			int hostEnd = end;
+			if (url.startsWith("[", start)) {
+				int ipv6End = url.indexOf(']', start);
+				hostEnd = ipv6End > 0 && ipv6End < end ? ipv6End + 1 : end;
+			}
+			else {
+				int portStart = url.lastIndexOf(':', end - 1);
+				if (portStart >= start) {
+					hostEnd = portStart;
+				}
+			}
+			return hostEnd > start ? url.substring(start, hostEnd) : null;
+		}
+
+		private static int indexOfAny(String url, String chars, int from) {
+			for (int i = from; i < url.length(); i++) {
+				if (chars.indexOf(url.charAt(i)) >= 0) {
+					return i;
+				}
+			}
+			return url.length();
+		}
+
+	}
+
 }
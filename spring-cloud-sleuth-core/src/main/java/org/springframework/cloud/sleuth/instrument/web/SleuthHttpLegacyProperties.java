@@ -32,6 +32,12 @@ public class SleuthHttpLegacyProperties {
 	 */
 	private boolean enabled;
 
+	/**
+	 * Which request tags to add to the HTTP spans. The headers listed in
+	 * {@code spring.sleuth.keys.http.headers} are always added.
+	 */
+	private Tags tags = Tags.FULL;
+
 	public boolean isEnabled() {
 		return this.enabled;
 	}
@@ -40,4 +46,34 @@ public class SleuthHttpLegacyProperties {
 		this.enabled = enabled;
 	}
 
+	public Tags getTags() {
+		return this.tags;
+	}
+
+	public void setTags(Tags tags) {
+		this.tags = tags;
+	}
+
+	/**
+	 * Sets of request tags of the HTTP spans.
+	 */
+	public enum Tags {
+
+		/**
+		 * Only the {@code http.method} and {@code http.path} tags.
+		 */
+		MINIMAL,
+
+		/**
+		 * The {@code http.host} tag next to the minimal ones.
+		 */
+		STANDARD,
+
+		/**
+		 * The {@code http.url} tag next to the standard ones.
+		 */
+		FULL
+
+	}
+
 }
@@ -16,29 +16,29 @@
 
 package org.springframework.cloud.sleuth.instrument.web;
 
-import java.util.regex.Pattern;
-
 import brave.http.HttpAdapter;
 import brave.http.HttpSampler;
 
 /**
- * Doesn't sample a span if skip pattern is matched.
+ * Doesn't sample a span if skip pattern is matched. The pattern is compiled to a
+ * {@link SkipPathMatcher}, so that the common skip patterns are matched without a
+ * regular expression.
  *
  * @author Marcin Grzejszczak
  * @since 2.0.0
  */
 class SleuthHttpSampler extends HttpSampler {
 
-	private final Pattern pattern;
+	private final SkipPathMatcher matcher;
 
 	SleuthHttpSampler(SkipPatternProvider provider) {
-		this.pattern = provider.skipPattern();
+		this.matcher = SkipPathMatcher.compile(provider.skipPattern());
 	}
 
 	@Override
 	public <Req> Boolean trySample(HttpAdapter<Req, ?> adapter, Req request) {
 		String url = adapter.path(request);
-		boolean shouldSkip = this.pattern.matcher(url).matches();
+		boolean shouldSkip = this.matcher.matches(url);
 		if (shouldSkip) {
 			return false;
 		}
@@ -39,7 +39,12 @@ class SleuthHttpServerParser extends HttpServerParser {
 	private final ErrorParser errorParser;
 
 	SleuthHttpServerParser(TraceKeys traceKeys, ErrorParser errorParser) {
-		this.clientParser = new SleuthHttpClientParser(traceKeys);
+		this(traceKeys, errorParser, SleuthHttpLegacyProperties.Tags.FULL);
+	}
+
+	SleuthHttpServerParser(TraceKeys traceKeys, ErrorParser errorParser,
+			SleuthHttpLegacyProperties.Tags tags) {
+		this.clientParser = new SleuthHttpClientParser(traceKeys, tags);
 		this.errorParser = errorParser;
 	}
 
@@ -16,6 +16,9 @@
 
 package org.springframework.cloud.sleuth.instrument.web;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
@@ -79,6 +82,11 @@ public class SleuthWebProperties {
 	 */
 	private Client client = new Client();
 
+	/**
+	 * Properties related to sampling server requests per route.
+	 */
+	private RouteSampler routeSampler = new RouteSampler();
+
 	public static String getDefaultSkipPattern() {
 		return DEFAULT_SKIP_PATTERN;
 	}
@@ -149,6 +157,14 @@ public class SleuthWebProperties {
 		this.client = client;
 	}
 
+	public RouteSampler getRouteSampler() {
+		return this.routeSampler;
+	}
+
+	public void setRouteSampler(RouteSampler routeSampler) {
+		this.routeSampler = routeSampler;
+	}
+
 	/**
 	 * Web client properties.
 	 *
@@ -185,6 +201,119 @@ public class SleuthWebProperties {
 
 	}
 
+	/**
+	 * Properties of the per route sampling of server requests. The route is the request
+	 * path in which numeric, UUID and long hexadecimal segments are replaced with
+	 * {@code *} (e.g. {@code /orders/*}).
+	 */
+	public static class RouteSampler {
+
+		/**
+		 * When true, server requests are sampled separately for each route. The global
+		 * sampler ({@code spring.sleuth.sampler.*}) is then no longer used for them.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Number of traces per second to sample for each route. Used when no probability
+		 * is set.
+		 */
+		private int rate = 10;
+
+		/**
+		 * Probability of sampling the requests of each route. When set, it's used instead
+		 * of the rate.
+		 */
+		private Float probability;
+
+		/**
+		 * Maximum number of routes to keep a sampler for. The least recently used ones
+		 * are dropped first. The samplers of the configured routes are always kept.
+		 */
+		private int maxRoutes = 1000;
+
+		/**
+		 * Rate or probability for given routes, e.g.
+		 * {@code spring.sleuth.web.route-sampler.routes.[/health].rate=1}.
+		 */
+		private Map<String, Route> routes = new LinkedHashMap<>();
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getRate() {
+			return this.rate;
+		}
+
+		public void setRate(int rate) {
+			this.rate = rate;
+		}
+
+		public Float getProbability() {
+			return this.probability;
+		}
+
+		public void setProbability(Float probability) {
+			this.probability = probability;
+		}
+
+		public int getMaxRoutes() {
+			return this.maxRoutes;
+		}
+
+		public void setMaxRoutes(int maxRoutes) {
+			this.maxRoutes = maxRoutes;
+		}
+
+		public Map<String, Route> getRoutes() {
+			return this.routes;
+		}
+
+		public void setRoutes(Map<String, Route> routes) {
+			this.routes = routes;
+		}
+
+	}
+
+	/**
+	 * Sampling of a single route.
+	 */
+	public static class Route {
+
+		/**
+		 * Number of traces per second to sample for the route.
+		 */
+		private Integer rate;
+
+		/**
+		 * Probability of sampling the requests of the route. Takes precedence over the
+		 * rate.
+		 */
+		private Float probability;
+
+		public Integer getRate() {
+			return this.rate;
+		}
+
+		public void setRate(Integer rate) {
+			this.rate = rate;
+		}
+
+		public Float getProbability() {
+			return this.probability;
+		}
+
+		public void setProbability(Float probability) {
+			this.probability = probability;
+		}
+
+	}
+
 	/**
 	 * Async computing properties.
 	 *
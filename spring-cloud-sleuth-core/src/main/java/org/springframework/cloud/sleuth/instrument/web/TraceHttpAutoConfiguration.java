@@ -56,27 +56,34 @@ public class TraceHttpAutoConfiguration {
 	HttpTracing httpTracing(Tracing tracing, SkipPatternProvider provider,
 			HttpClientParser clientParser, HttpServerParser serverParser,
 			@ClientSampler HttpSampler clientSampler,
-			@Nullable @ServerSampler HttpSampler serverSampler) {
+			@Nullable @ServerSampler HttpSampler serverSampler,
+			SleuthWebProperties sleuthWebProperties) {
 		HttpSampler combinedSampler = combineUserProvidedSamplerWithSkipPatternSampler(
-				serverSampler, provider);
+				serverSampler, provider, sleuthWebProperties.getRouteSampler());
 		return HttpTracing.newBuilder(tracing).clientParser(clientParser)
 				.serverParser(serverParser).clientSampler(clientSampler)
 				.serverSampler(combinedSampler).build();
 	}
 
 	private HttpSampler combineUserProvidedSamplerWithSkipPatternSampler(
-			HttpSampler serverSampler, SkipPatternProvider provider) {
-		SleuthHttpSampler skipPatternSampler = new SleuthHttpSampler(provider);
+			HttpSampler serverSampler, SkipPatternProvider provider,
+			SleuthWebProperties.RouteSampler routeSamplerProperties) {
+		HttpSampler sampler = new SleuthHttpSampler(provider);
+		if (routeSamplerProperties.isEnabled()) {
+			sampler = new CompositeHttpSampler(sampler,
+					new RouteHttpSampler(routeSamplerProperties));
+		}
 		if (serverSampler == null) {
-			return skipPatternSampler;
+			return sampler;
 		}
-		return new CompositeHttpSampler(skipPatternSampler, serverSampler);
+		return new CompositeHttpSampler(sampler, serverSampler);
 	}
 
 	@Bean
 	@ConditionalOnProperty(name = "spring.sleuth.http.legacy.enabled", havingValue = "true")
-	HttpClientParser sleuthHttpClientParser(TraceKeys traceKeys) {
-		return new SleuthHttpClientParser(traceKeys);
+	HttpClientParser sleuthHttpClientParser(TraceKeys traceKeys,
+			SleuthHttpLegacyProperties legacyProperties) {
+		return new SleuthHttpClientParser(traceKeys, legacyProperties.getTags());
 	}
 
 	@Bean
@@ -94,8 +101,9 @@ public class TraceHttpAutoConfiguration {
 	@Bean
 	@ConditionalOnProperty(name = "spring.sleuth.http.legacy.enabled", havingValue = "true")
 	HttpServerParser sleuthHttpServerParser(TraceKeys traceKeys,
-			ErrorParser errorParser) {
-		return new SleuthHttpServerParser(traceKeys, errorParser);
+			ErrorParser errorParser, SleuthHttpLegacyProperties legacyProperties) {
+		return new SleuthHttpServerParser(traceKeys, errorParser,
+				legacyProperties.getTags());
 	}
 
 	@Bean
@@ -16,6 +16,9 @@
 
 package org.springframework.cloud.sleuth.instrument.web.client;
 
+import java.util.List;
+import java.util.Map;
+
 import brave.Span;
 import brave.Tracer;
 import brave.http.HttpClientHandler;
@@ -48,20 +51,31 @@ final class TraceRequestHttpHeadersFilter extends AbstractHttpHeadersFilter {
 		if (log.isDebugEnabled()) {
 			log.debug("Will instrument the HTTP request headers");
 		}
-		ServerHttpRequest.Builder builder = exchange.getRequest().mutate();
-		Span span = this.handler.handleSend(this.injector, builder);
+		ServerHttpRequest request = exchange.getRequest();
+		// the first value of each input header, overridden by the request headers and
+		// then by the tracing headers
+		HttpHeaders headersWithInput = new HttpHeaders();
+		setFirstValues(headersWithInput, input);
+		setFirstValues(headersWithInput, request.getHeaders());
+		Span span = this.handler.handleSend(this.injector,
+				new GatewayRequest(request, headersWithInput));
 		if (log.isDebugEnabled()) {
-			log.debug(
-					"Client span  " + span + " created for the request. New headers are "
-							+ builder.build().getHeaders().toSingleValueMap());
+			log.debug("Client span  " + span
+					+ " created for the request. New headers are " + headersWithInput);
 		}
 		exchange.getAttributes().put(SPAN_ATTRIBUTE, span);
-		HttpHeaders headersWithInput = new HttpHeaders();
-		headersWithInput.setAll(input.toSingleValueMap());
-		headersWithInput.setAll(builder.build().getHeaders().toSingleValueMap());
 		return headersWithInput;
 	}
 
+	private static void setFirstValues(HttpHeaders target, HttpHeaders source) {
+		for (Map.Entry<String, List<String>> entry : source.entrySet()) {
+			List<String> values = entry.getValue();
+			if (!values.isEmpty()) {
+				target.set(entry.getKey(), values.get(0));
+			}
+		}
+	}
+
 	@Override
 	public boolean supports(Type type) {
 		return type.equals(Type.REQUEST);
@@ -109,23 +123,23 @@ abstract class AbstractHttpHeadersFilter implements HttpHeadersFilter {
 
 	static final String SPAN_ATTRIBUTE = Span.class.getName();
 
-	private static final Propagation.Setter<ServerHttpRequest.Builder, String> SETTER = new Propagation.Setter<ServerHttpRequest.Builder, String>() {
+	private static final Propagation.Setter<GatewayRequest, String> SETTER = new Propagation.Setter<GatewayRequest, String>() {
 		@Override
-		public void put(ServerHttpRequest.Builder carrier, String key, String value) {
-			carrier.headers(httpHeaders -> httpHeaders.set(key, value));
+		public void put(GatewayRequest carrier, String key, String value) {
+			carrier.headers.set(key, value);
 		}
 
 		@Override
 		public String toString() {
-			return "ServerHttpRequest.Builder::header";
+			return "HttpHeaders::set";
 		}
 	};
 
 	final Tracer tracer;
 
-	final HttpClientHandler<ServerHttpRequest.Builder, ServerHttpResponse> handler;
+	final HttpClientHandler<GatewayRequest, ServerHttpResponse> handler;
 
-	final TraceContext.Injector<ServerHttpRequest.Builder> injector;
+	final TraceContext.Injector<GatewayRequest> injector;
 
 	final HttpTracing httpTracing;
 
@@ -136,23 +150,44 @@ abstract class AbstractHttpHeadersFilter implements HttpHeadersFilter {
 		this.httpTracing = httpTracing;
 	}
 
-	private static class ServerHttpAdapter extends
-			brave.http.HttpClientAdapter<ServerHttpRequest.Builder, ServerHttpResponse> {
+	/**
+	 * The request to the downstream service: the incoming request together with the
+	 * headers that will be sent, into which the tracing headers are injected.
+	 */
+	static final class GatewayRequest {
+
+		final ServerHttpRequest request;
+
+		final HttpHeaders headers;
+
+		GatewayRequest(ServerHttpRequest request, HttpHeaders headers) {
+			this.request = request;
+			this.headers = headers;
+		}
+
+	}
+
+	private static class ServerHttpAdapter
+			extends brave.http.HttpClientAdapter<GatewayRequest, ServerHttpResponse> {
+
+		@Override
+		public String method(GatewayRequest request) {
+			return request.request.getMethodValue();
+		}
 
 		@Override
-		public String method(ServerHttpRequest.Builder request) {
-			return request.build().getMethodValue();
+		public String url(GatewayRequest request) {
+			return request.request.getURI().toString();
 		}
 
 		@Override
-		public String url(ServerHttpRequest.Builder request) {
-			return request.build().getURI().toString();
+		public String path(GatewayRequest request) {
+			return request.request.getURI().getPath();
 		}
 
 		@Override
-		public String requestHeader(ServerHttpRequest.Builder request, String name) {
-			Object result = request.build().getHeaders().get(name);
-			return result != null ? result.toString() : "";
+		public String requestHeader(GatewayRequest request, String name) {
+			return request.headers.getFirst(name);
 		}
 
 		@Override
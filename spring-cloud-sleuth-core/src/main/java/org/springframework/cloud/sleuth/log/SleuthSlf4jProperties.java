@@ -40,6 +40,12 @@ public class SleuthSlf4jProperties {
 	 */
 	private List<String> whitelistedMdcKeys = new ArrayList<>();
 
+	/**
+	 * Whether to also put the legacy "X-B3-TraceId", "X-B3-ParentSpanId",
+	 * "X-B3-SpanId" and "X-Span-Export" entries to MDC.
+	 */
+	private boolean legacyMdcKeys = true;
+
 	public boolean isEnabled() {
 		return this.enabled;
 	}
@@ -56,4 +62,12 @@ public class SleuthSlf4jProperties {
 		this.whitelistedMdcKeys = whitelistedMdcKeys;
 	}
 
+	public boolean isLegacyMdcKeys() {
+		return this.legacyMdcKeys;
+	}
+
+	public void setLegacyMdcKeys(boolean legacyMdcKeys) {
+		this.legacyMdcKeys = legacyMdcKeys;
+	}
+
 }
@@ -16,12 +16,11 @@
 
 package org.springframework.cloud.sleuth.log;
 
-import java.util.AbstractMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Set;
 
-import brave.internal.HexCodec;
 import brave.internal.Nullable;
 import brave.propagation.CurrentTraceContext;
 import brave.propagation.ExtraFieldPropagation;
@@ -38,7 +37,10 @@ import org.springframework.util.StringUtils;
  * when a {@link brave.Tracer#currentSpan() span is current}. These can be used in log
  * correlation. Supports backward compatibility of MDC entries by adding legacy "X-B3"
  * entries to MDC context "X-B3-TraceId", "X-B3-ParentSpanId", "X-B3-SpanId" and
- * "X-B3-Sampled"
+ * "X-B3-Sampled", unless {@link SleuthSlf4jProperties#isLegacyMdcKeys()} is disabled.
+ * Scoping the context that is already in MDC again doesn't touch MDC, unless there are
+ * whitelisted baggage or propagation keys whose values could have changed in the
+ * meantime.
  *
  * @author Marcin Grzejszczak
  * @since 2.1.0
@@ -56,14 +58,28 @@ final class Slf4jScopeDecorator implements CurrentTraceContext.ScopeDecorator {
 
 	private static final Logger log = LoggerFactory.getLogger(Slf4jScopeDecorator.class);
 
+	private static final Object NOT_MODIFIED = new Object();
+
+	private static final Object[] EMPTY = new Object[0];
+
+	/**
+	 * Context whose entries were last put in MDC by this decorator on the current thread.
+	 */
+	private final ThreadLocal<ContextInMdc> contextInMdc = new ThreadLocal<>();
+
 	private final SleuthProperties sleuthProperties;
 
 	private final SleuthSlf4jProperties sleuthSlf4jProperties;
 
+	private volatile WhitelistedKeys whitelistedKeys;
+
 	Slf4jScopeDecorator(SleuthProperties sleuthProperties,
 			SleuthSlf4jProperties sleuthSlf4jProperties) {
 		this.sleuthProperties = sleuthProperties;
 		this.sleuthSlf4jProperties = sleuthSlf4jProperties;
+		this.whitelistedKeys = new WhitelistedKeys(sleuthProperties.getBaggageKeys(),
+				sleuthProperties.getPropagationKeys(),
+				sleuthSlf4jProperties.getWhitelistedMdcKeys());
 	}
 
 	static void replace(String key, @Nullable String value) {
@@ -78,57 +94,75 @@ final class Slf4jScopeDecorator implements CurrentTraceContext.ScopeDecorator {
 	@Override
 	public CurrentTraceContext.Scope decorateScope(TraceContext currentSpan,
 			CurrentTraceContext.Scope scope) {
+		final boolean legacy = this.sleuthSlf4jProperties.isLegacyMdcKeys();
+		final String[] whitelistedKeys = whitelistedKeys().keys;
+		final ContextInMdc previousContext = this.contextInMdc.get();
+		if (whitelistedKeys.length == 0
+				&& isInMdc(previousContext, currentSpan, legacy)) {
+			// MDC already reflects this context, e.g. when it's scoped again on the
+			// same thread
+			return scope;
+		}
 		final String previousTraceId = MDC.get("traceId");
 		final String previousParentId = MDC.get("parentId");
 		final String previousSpanId = MDC.get("spanId");
 		final String spanExportable = MDC.get("spanExportable");
-		final String legacyPreviousTraceId = MDC.get(LEGACY_TRACE_ID_NAME);
-		final String legacyPreviousParentId = MDC.get(LEGACY_PARENT_ID_NAME);
-		final String legacyPreviousSpanId = MDC.get(LEGACY_SPAN_ID_NAME);
-		final String legacySpanExportable = MDC.get(LEGACY_EXPORTABLE_NAME);
-		final List<AbstractMap.SimpleEntry<String, String>> previousMdc = Stream
-				.concat(whitelistedBaggageKeysWithValue(currentSpan),
-						whitelistedPropagationKeysWithValue(currentSpan))
-				.map((s) -> new AbstractMap.SimpleEntry<>(s, MDC.get(s)))
-				.collect(Collectors.toList());
+		final String legacyPreviousTraceId = legacy ? MDC.get(LEGACY_TRACE_ID_NAME)
+				: null;
+		final String legacyPreviousParentId = legacy ? MDC.get(LEGACY_PARENT_ID_NAME)
+				: null;
+		final String legacyPreviousSpanId = legacy ? MDC.get(LEGACY_SPAN_ID_NAME)
+				: null;
+		final String legacySpanExportable = legacy ? MDC.get(LEGACY_EXPORTABLE_NAME)
+				: null;
+		final Object[] previousMdc = previousMdc(whitelistedKeys, currentSpan);
 
 		if (currentSpan != null) {
+			// the hex strings are cached on the context
 			String traceIdString = currentSpan.traceIdString();
+			String parentId = currentSpan.parentIdString();
+			String spanId = currentSpan.spanIdString();
+			String sampled = String.valueOf(currentSpan.sampled());
 			MDC.put("traceId", traceIdString);
-			MDC.put(LEGACY_TRACE_ID_NAME, traceIdString);
-			String parentId = currentSpan.parentId() != null
-					? HexCodec.toLowerHex(currentSpan.parentId()) : null;
 			replace("parentId", parentId);
-			replace(LEGACY_PARENT_ID_NAME, parentId);
-			String spanId = HexCodec.toLowerHex(currentSpan.spanId());
 			MDC.put("spanId", spanId);
-			MDC.put(LEGACY_SPAN_ID_NAME, spanId);
-			String sampled = String.valueOf(currentSpan.sampled());
 			MDC.put("spanExportable", sampled);
-			MDC.put(LEGACY_EXPORTABLE_NAME, sampled);
+			if (legacy) {
+				MDC.put(LEGACY_TRACE_ID_NAME, traceIdString);
+				replace(LEGACY_PARENT_ID_NAME, parentId);
+				MDC.put(LEGACY_SPAN_ID_NAME, spanId);
+				MDC.put(LEGACY_EXPORTABLE_NAME, sampled);
+			}
 			log("Starting scope for span: {}", currentSpan);
 			if (currentSpan.parentId() != null) {
 				if (log.isTraceEnabled()) {
 					log.trace("With parent: {}", currentSpan.parentId());
 				}
 			}
-			whitelistedBaggageKeysWithValue(currentSpan).forEach(
-					(s) -> MDC.put(s, ExtraFieldPropagation.get(currentSpan, s)));
-			whitelistedPropagationKeysWithValue(currentSpan).forEach(
-					(s) -> MDC.put(s, ExtraFieldPropagation.get(currentSpan, s)));
+			for (int i = 0; i < whitelistedKeys.length; i++) {
+				if (previousMdc[i] != NOT_MODIFIED) {
+					MDC.put(whitelistedKeys[i],
+							ExtraFieldPropagation.get(currentSpan, whitelistedKeys[i]));
+				}
+			}
 		}
 		else {
 			MDC.remove("traceId");
 			MDC.remove("parentId");
 			MDC.remove("spanId");
 			MDC.remove("spanExportable");
-			MDC.remove(LEGACY_TRACE_ID_NAME);
-			MDC.remove(LEGACY_PARENT_ID_NAME);
-			MDC.remove(LEGACY_SPAN_ID_NAME);
-			MDC.remove(LEGACY_EXPORTABLE_NAME);
-			whitelistedBaggageKeys().forEach(MDC::remove);
-			whitelistedPropagationKeys().forEach(MDC::remove);
+			if (legacy) {
+				MDC.remove(LEGACY_TRACE_ID_NAME);
+				MDC.remove(LEGACY_PARENT_ID_NAME);
+				MDC.remove(LEGACY_SPAN_ID_NAME);
+				MDC.remove(LEGACY_EXPORTABLE_NAME);
+			}
+			for (String key : whitelistedKeys) {
+				MDC.remove(key);
+			}
 		}
+		this.contextInMdc.set(currentSpan != null && whitelistedKeys.length == 0
+				? new ContextInMdc(currentSpan, legacy) : null);
 
 		/**
 		 * Thread context scope.
@@ -145,41 +179,75 @@ final class Slf4jScopeDecorator implements CurrentTraceContext.ScopeDecorator {
 				replace("parentId", previousParentId);
 				replace("spanId", previousSpanId);
 				replace("spanExportable", spanExportable);
-				replace(LEGACY_TRACE_ID_NAME, legacyPreviousTraceId);
-				replace(LEGACY_PARENT_ID_NAME, legacyPreviousParentId);
-				replace(LEGACY_SPAN_ID_NAME, legacyPreviousSpanId);
-				replace(LEGACY_EXPORTABLE_NAME, legacySpanExportable);
-				previousMdc.forEach((e) -> replace(e.getKey(), e.getValue()));
+				if (legacy) {
+					replace(LEGACY_TRACE_ID_NAME, legacyPreviousTraceId);
+					replace(LEGACY_PARENT_ID_NAME, legacyPreviousParentId);
+					replace(LEGACY_SPAN_ID_NAME, legacyPreviousSpanId);
+					replace(LEGACY_EXPORTABLE_NAME, legacySpanExportable);
+				}
+				for (int i = 0; i < whitelistedKeys.length; i++) {
+					if (previousMdc[i] != NOT_MODIFIED) {
+						replace(whitelistedKeys[i], (String) previousMdc[i]);
+					}
+				}
+				Slf4jScopeDecorator.this.contextInMdc.set(previousContext);
 			}
 
 		}
 		return new ThreadContextCurrentTraceContextScope();
 	}
 
-	private Stream<String> whitelistedBaggageKeys() {
-		return this.sleuthProperties.getBaggageKeys().stream().filter(
-				(s) -> this.sleuthSlf4jProperties.getWhitelistedMdcKeys().contains(s));
+	/**
+	 * Checks if the entries of the context are still in MDC, as MDC might have been
+	 * cleared or changed by other code on this thread.
+	 */
+	private static boolean isInMdc(ContextInMdc contextInMdc, TraceContext context,
+			boolean legacy) {
+		return context != null && contextInMdc != null
+				&& contextInMdc.context == context && contextInMdc.legacy == legacy
+				&& context.spanIdString().equals(MDC.get("spanId"))
+				&& context.traceIdString().equals(MDC.get("traceId"));
 	}
 
-	private Stream<String> whitelistedBaggageKeysWithValue(TraceContext context) {
-		if (context == null) {
-			return Stream.empty();
+	/**
+	 * Snapshots the MDC values of the whitelisted keys that will be overridden by the
+	 * current span. Keys without a value in the span are marked as
+	 * {@link #NOT_MODIFIED}.
+	 */
+	private Object[] previousMdc(String[] whitelistedKeys, TraceContext context) {
+		if (whitelistedKeys.length == 0) {
+			return EMPTY;
 		}
-		return whitelistedBaggageKeys().filter(
-				(s) -> StringUtils.hasText(ExtraFieldPropagation.get(context, s)));
-	}
-
-	private Stream<String> whitelistedPropagationKeys() {
-		return this.sleuthProperties.getPropagationKeys().stream().filter(
-				(s) -> this.sleuthSlf4jProperties.getWhitelistedMdcKeys().contains(s));
+		Object[] previousMdc = new Object[whitelistedKeys.length];
+		for (int i = 0; i < whitelistedKeys.length; i++) {
+			String key = whitelistedKeys[i];
+			if (context != null
+					&& StringUtils.hasText(ExtraFieldPropagation.get(context, key))) {
+				previousMdc[i] = MDC.get(key);
+			}
+			else {
+				previousMdc[i] = NOT_MODIFIED;
+			}
+		}
+		return previousMdc;
 	}
 
-	private Stream<String> whitelistedPropagationKeysWithValue(TraceContext context) {
-		if (context == null) {
-			return Stream.empty();
+	/**
+	 * Returns the baggage and propagation keys that are whitelisted to be put in MDC. The
+	 * result is computed once and recomputed only when the properties got rebound (e.g.
+	 * on refresh).
+	 */
+	private WhitelistedKeys whitelistedKeys() {
+		WhitelistedKeys keys = this.whitelistedKeys;
+		List<String> baggageKeys = this.sleuthProperties.getBaggageKeys();
+		List<String> propagationKeys = this.sleuthProperties.getPropagationKeys();
+		List<String> whitelist = this.sleuthSlf4jProperties.getWhitelistedMdcKeys();
+		if (keys.baggageKeys != baggageKeys || keys.propagationKeys != propagationKeys
+				|| keys.whitelist != whitelist) {
+			keys = new WhitelistedKeys(baggageKeys, propagationKeys, whitelist);
+			this.whitelistedKeys = keys;
 		}
-		return whitelistedPropagationKeys().filter(
-				(s) -> StringUtils.hasText(ExtraFieldPropagation.get(context, s)));
+		return keys;
 	}
 
 	private void log(String text, TraceContext span) {
@@ -191,4 +259,56 @@ final class Slf4jScopeDecorator implements CurrentTraceContext.ScopeDecorator {
 		}
 	}
 
+	/**
+	 * Context put in MDC, together with the legacy keys setting it was put with.
+	 */
+	private static final class ContextInMdc {
+
+		final TraceContext context;
+
+		final boolean legacy;
+
+		ContextInMdc(TraceContext context, boolean legacy) {
+			this.context = context;
+			this.legacy = legacy;
+		}
+
+	}
+
+	/**
+	 * Baggage and propagation keys that are whitelisted to be put in MDC, together with
+	 * the property values they were computed from.
+	 */
+	private static final class WhitelistedKeys {
+
+		final List<String> baggageKeys;
+
+		final List<String> propagationKeys;
+
+		final List<String> whitelist;
+
+		final String[] keys;
+
+		WhitelistedKeys(List<String> baggageKeys, List<String> propagationKeys,
+				List<String> whitelist) {
+			this.baggageKeys = baggageKeys;
+			this.propagationKeys = propagationKeys;
+			this.whitelist = whitelist;
+			Set<String> keys = new LinkedHashSet<>();
+			Set<String> whitelisted = new HashSet<>(whitelist);
+			for (String key : baggageKeys) {
+				if (whitelisted.contains(key)) {
+					keys.add(key);
+				}
+			}
+			for (String key : propagationKeys) {
+				if (whitelisted.contains(key)) {
+					keys.add(key);
+				}
+			}
+			this.keys = keys.toArray(new String[0]);
+		}
+
+	}
+
 }
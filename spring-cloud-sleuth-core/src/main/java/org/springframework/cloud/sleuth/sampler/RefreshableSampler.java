@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.sampler;
+
+import java.util.Locale;
+import java.util.Set;
+
+import brave.sampler.Sampler;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * A {@link Sampler} that reacts to changes of the {@link SamplerProperties} without
+ * being a refresh scoped proxy. On {@link EnvironmentChangeEvent} the properties are
+ * bound again and the delegate sampler is atomically swapped, so the sampling decision
+ * is a single volatile read away from the actual sampler.
+ *
+ * @since 2.2.0
+ */
+class RefreshableSampler extends Sampler
+		implements ApplicationListener<EnvironmentChangeEvent> {
+
+	private static final String PREFIX = "spring.sleuth.sampler";
+
+	private final Environment environment;
+
+	private volatile Sampler delegate;
+
+	RefreshableSampler(Environment environment, SamplerProperties config) {
+		this.environment = environment;
+		this.delegate = SamplerAutoConfiguration.samplerFromProps(config);
+	}
+
+	@Override
+	public boolean isSampled(long traceId) {
+		return this.delegate.isSampled(traceId);
+	}
+
+	@Override
+	public void onApplicationEvent(EnvironmentChangeEvent event) {
+		if (!samplerPropertiesChanged(event.getKeys())) {
+			return;
+		}
+		SamplerProperties config = Binder.get(this.environment)
+				.bind(PREFIX, SamplerProperties.class).orElseGet(SamplerProperties::new);
+		this.delegate = SamplerAutoConfiguration.samplerFromProps(config);
+	}
+
+	private boolean samplerPropertiesChanged(Set<String> keys) {
+		for (String key : keys) {
+			// relaxed form, e.g. SPRING_SLEUTH_SAMPLER_RATE
+			String normalized = key.toLowerCase(Locale.ROOT).replace('_', '.');
+			if (normalized.equals(PREFIX) || normalized.startsWith(PREFIX + ".")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	Sampler delegate() {
+		return this.delegate;
+	}
+
+	@Override
+	public String toString() {
+		return "RefreshableSampler{" + "delegate=" + this.delegate + '}';
+	}
+
+}
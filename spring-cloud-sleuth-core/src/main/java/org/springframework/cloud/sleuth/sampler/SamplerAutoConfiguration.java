@@ -25,6 +25,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 /**
  * {@link org.springframework.boot.autoconfigure.EnableAutoConfiguration
@@ -42,11 +43,16 @@ public class SamplerAutoConfiguration {
 		if (config.getRate() != null) {
 			return new RateLimitingSampler(config);
 		}
+		if (config.getProbabilityType() == SamplerProperties.ProbabilityType.TRACE_ID) {
+			return new TraceIdProbabilityBasedSampler(config);
+		}
 		return new ProbabilityBasedSampler(config);
 	}
 
 	@Configuration
 	@ConditionalOnBean(type = "org.springframework.cloud.context.scope.refresh.RefreshScope")
+	@ConditionalOnProperty(value = "spring.sleuth.sampler.refresh-scope.enabled",
+			matchIfMissing = true)
 	protected static class RefreshScopedSamplerConfiguration {
 
 		@Bean
@@ -58,6 +64,25 @@ public class SamplerAutoConfiguration {
 
 	}
 
+	/**
+	 * Applies changes of the sampler properties without going through a refresh scoped
+	 * proxy on each sampling decision.
+	 */
+	@Configuration
+	@ConditionalOnBean(type = "org.springframework.cloud.context.scope.refresh.RefreshScope")
+	@ConditionalOnProperty(value = "spring.sleuth.sampler.refresh-scope.enabled",
+			havingValue = "false")
+	protected static class RefreshableSamplerConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public Sampler defaultTraceSampler(Environment environment,
+				SamplerProperties config) {
+			return new RefreshableSampler(environment, config);
+		}
+
+	}
+
 	@Configuration
 	@ConditionalOnMissingBean(type = "org.springframework.cloud.context.scope.refresh.RefreshScope")
 	protected static class NonRefreshScopeSamplerConfiguration {
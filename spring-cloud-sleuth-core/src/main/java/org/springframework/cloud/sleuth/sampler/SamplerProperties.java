@@ -30,11 +30,19 @@ public class SamplerProperties {
 
 	/**
 	 * Probability of requests that should be sampled. E.g. 1.0 - 100% requests should be
-	 * sampled. The precision is whole-numbers only (i.e. there's no support for 0.1% of
-	 * the traces).
+	 * sampled. With the {@link ProbabilityType#COUNTING} type the precision is
+	 * whole-numbers only (i.e. there's no support for 0.1% of the traces).
 	 */
 	private float probability = 0.1f;
 
+	/**
+	 * Way of making the probability based sampling decision. {@code COUNTING} retains an
+	 * exact amount of traces out of every 100, but synchronizes on each decision.
+	 * {@code TRACE_ID} is lock-free and supports fractions smaller than 1%, but requires
+	 * randomly generated trace ids.
+	 */
+	private ProbabilityType probabilityType = ProbabilityType.COUNTING;
+
 	/**
 	 * A rate per second can be a nice choice for low-traffic endpoints as it allows you
 	 * surge protection. For example, you may never expect the endpoint to get more than
@@ -55,6 +63,14 @@ public class SamplerProperties {
 		this.probability = probability;
 	}
 
+	public ProbabilityType getProbabilityType() {
+		return this.probabilityType;
+	}
+
+	public void setProbabilityType(ProbabilityType probabilityType) {
+		this.probabilityType = probabilityType;
+	}
+
 	public Integer getRate() {
 		return this.rate;
 	}
@@ -63,4 +79,23 @@ public class SamplerProperties {
 		this.rate = rate;
 	}
 
+	/**
+	 * Types of the probability based sampling decision.
+	 */
+	public enum ProbabilityType {
+
+		/**
+		 * Counts how many out of 100 traces should be retained.
+		 * @see ProbabilityBasedSampler
+		 */
+		COUNTING,
+
+		/**
+		 * Compares the trace id against a threshold, without any locking.
+		 * @see TraceIdProbabilityBasedSampler
+		 */
+		TRACE_ID
+
+	}
+
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.sampler;
+
+import brave.sampler.Sampler;
+
+/**
+ * A lock-free alternative to the {@link ProbabilityBasedSampler}. Instead of counting
+ * how many out of 100 traces should be retained, the decision is made by comparing the
+ * lower 63 bits of the trace id against a precomputed threshold. There is no shared
+ * mutable state, so concurrent root spans never contend with each other.
+ *
+ * <p>
+ * Since trace ids are random, the statistical rate is the configured probability and
+ * fractions smaller than 1% are supported. The decision is idempotent, meaning that
+ * every service using the same probability makes the same decision for a given trace
+ * id. It is not appropriate when trace ids are not randomly generated.
+ *
+ * @since 2.2.0
+ */
+public class TraceIdProbabilityBasedSampler extends Sampler {
+
+	private final float probability;
+
+	private final long threshold;
+
+	public TraceIdProbabilityBasedSampler(SamplerProperties configuration) {
+		this.probability = configuration.getProbability();
+		this.threshold = threshold(this.probability);
+	}
+
+	static long threshold(float probability) {
+		if (probability <= 0.0f) {
+			return 0L;
+		}
+		if (probability >= 1.0f) {
+			return Long.MAX_VALUE;
+		}
+		return (long) ((double) probability * Long.MAX_VALUE);
+	}
+
+	@Override
+	public boolean isSampled(long traceId) {
+		if (this.probability <= 0.0f) {
+			return false;
+		}
+		else if (this.probability >= 1.0f) {
+			return true;
+		}
+		return (traceId & Long.MAX_VALUE) < this.threshold;
+	}
+
+}
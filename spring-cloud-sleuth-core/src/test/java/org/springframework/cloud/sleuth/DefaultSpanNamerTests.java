@@ -0,0 +1,102 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class DefaultSpanNamerTests {
+
+	DefaultSpanNamer spanNamer = new DefaultSpanNamer();
+
+	@Test
+	public void should_return_annotated_name_of_the_class() {
+		then(this.spanNamer.name(new AnnotatedTask(), "default")).isEqualTo("annotated");
+		then(this.spanNamer.name(new AnnotatedTask(), "default")).isEqualTo("annotated");
+	}
+
+	@Test
+	public void should_return_default_name_when_to_string_is_not_overridden() {
+		then(this.spanNamer.name(new Object(), "default")).isEqualTo("default");
+		then(this.spanNamer.name((Runnable) () -> {
+		}, "default")).isEqualTo("default");
+	}
+
+	@Test
+	public void should_return_to_string_of_each_instance_when_it_is_overridden() {
+		then(this.spanNamer.name(new NamedTask("first"), "default")).isEqualTo("first");
+		then(this.spanNamer.name(new NamedTask("second"), "default"))
+				.isEqualTo("second");
+	}
+
+	@Test
+	public void should_return_default_name_when_overridden_to_string_is_the_default_one() {
+		then(this.spanNamer.name(new DefaultToStringTask(), "default"))
+				.isEqualTo("default");
+	}
+
+	@Test
+	public void should_return_annotated_name_of_the_method() {
+		Method method = ReflectionUtils.findMethod(AnnotatedMethod.class, "run");
+
+		then(this.spanNamer.name(method, "default")).isEqualTo("annotatedMethod");
+	}
+
+	@SpanName("annotated")
+	static class AnnotatedTask {
+
+	}
+
+	static class NamedTask {
+
+		private final String name;
+
+		NamedTask(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+
+	}
+
+	static class DefaultToStringTask {
+
+		@Override
+		public String toString() {
+			return super.toString();
+		}
+
+	}
+
+	static class AnnotatedMethod {
+
+		@SpanName("annotatedMethod")
+		void run() {
+
+		}
+
+	}
+
+}
@@ -47,6 +47,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.cloud.sleuth.DefaultSpanNamer;
+import org.springframework.cloud.sleuth.SpanName;
 import org.springframework.cloud.sleuth.SpanNamer;
 import org.springframework.cloud.sleuth.util.ArrayListSpanReporter;
 
@@ -218,6 +219,35 @@ public class TraceableExecutorServiceTests {
 		then(this.tracer.currentSpan()).isNull();
 	}
 
+	@Test
+	public void should_name_spans_after_the_annotation_or_the_to_string_of_each_task()
+			throws Exception {
+		this.traceManagerableExecutorService.submit(new AnnotatedTask()).get();
+		this.traceManagerableExecutorService.submit(new AnnotatedTask()).get();
+		this.traceManagerableExecutorService.submit(new NamedTask("first")).get();
+		this.traceManagerableExecutorService.submit(new NamedTask("second")).get();
+		this.traceManagerableExecutorService.submit(() -> {
+		}).get();
+
+		then(this.reporter.getSpans()).extracting(zipkin2.Span::name)
+				.containsExactly("annotated", "annotated", "first", "second", "async");
+	}
+
+	@Test
+	public void should_name_spans_per_task_instance_with_a_custom_span_namer()
+			throws Exception {
+		TraceableExecutorService executorService = new TraceableExecutorService(
+				beanFactory(true), this.executorService);
+		executorService.spanNamer = (object, defaultValue) -> object instanceof StateTask
+				? ((StateTask) object).state : defaultValue;
+
+		executorService.submit(new StateTask("first")).get();
+		executorService.submit(new StateTask("second")).get();
+
+		then(this.reporter.getSpans()).extracting(zipkin2.Span::name)
+				.containsExactly("first", "second");
+	}
+
 	private CompletableFuture<?>[] runnablesExecutedViaTraceManagerableExecutorService() {
 		List<CompletableFuture<?>> futures = new ArrayList<>();
 		for (int i = 0; i < TOTAL_THREADS; i++) {
@@ -256,4 +286,49 @@ public class TraceableExecutorServiceTests {
 
 	}
 
+	@SpanName("annotated")
+	static class AnnotatedTask implements Runnable {
+
+		@Override
+		public void run() {
+
+		}
+
+	}
+
+	static class StateTask implements Runnable {
+
+		private final String state;
+
+		StateTask(String state) {
+			this.state = state;
+		}
+
+		@Override
+		public void run() {
+
+		}
+
+	}
+
+	static class NamedTask implements Runnable {
+
+		private final String name;
+
+		NamedTask(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void run() {
+
+		}
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+
+	}
+
 }
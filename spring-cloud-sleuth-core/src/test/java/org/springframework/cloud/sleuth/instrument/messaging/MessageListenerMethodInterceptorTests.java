@@ -0,0 +1,213 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.messaging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import brave.Tracing;
+import brave.kafka.clients.KafkaTracing;
+import brave.propagation.TraceContext;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.After;
+import org.junit.Test;
+import zipkin2.Span;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cloud.sleuth.util.ArrayListSpanReporter;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.MessageListener;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+public class MessageListenerMethodInterceptorTests {
+
+	ArrayListSpanReporter reporter = new ArrayListSpanReporter();
+
+	Tracing tracing = Tracing.newBuilder().spanReporter(this.reporter).build();
+
+	MessageListenerMethodInterceptor interceptor = new MessageListenerMethodInterceptor(
+			KafkaTracing.create(this.tracing), this.tracing, 2);
+
+	@After
+	public void close() {
+		this.tracing.close();
+	}
+
+	@Test
+	public void should_continue_the_producer_trace_for_a_record_listener() {
+		AtomicReference<TraceContext> contextInListener = new AtomicReference<>();
+		MessageListener<String, String> listener = proxy(
+				(MessageListener<String, String>) record -> contextInListener
+						.set(this.tracing.currentTraceContext().get()));
+
+		listener.onMessage(record("000000000000000a"));
+		listener.onMessage(record("000000000000000b"));
+
+		then(this.reporter.getSpans()).extracting(Span::name)
+				.containsExactly("on-message", "on-message");
+		then(this.reporter.getSpans()).extracting(Span::traceId)
+				.containsExactly("000000000000000a", "000000000000000b");
+		then(contextInListener.get().traceIdString()).isEqualTo("000000000000000b");
+	}
+
+	@Test
+	public void should_create_a_batch_span_and_at_most_the_configured_number_of_record_spans() {
+		AtomicReference<TraceContext> contextInListener = new AtomicReference<>();
+		BatchMessageListener<String, String> listener = proxy(
+				(BatchMessageListener<String, String>) records -> contextInListener
+						.set(this.tracing.currentTraceContext().get()));
+
+		listener.onMessage(Arrays.asList(record("000000000000000a"),
+				record("000000000000000b"), record("000000000000000c")));
+
+		List<Span> spans = this.reporter.getSpans();
+		then(spans).hasSize(3);
+		Span batchSpan = spans.stream().filter(span -> "on-batch".equals(span.name()))
+				.findFirst().get();
+		then(batchSpan.tags()).containsEntry("kafka.batch.size", "3");
+		then(batchSpan.id()).isEqualTo(contextInListener.get().spanIdString());
+		then(spans).filteredOn(span -> "on-batch-record".equals(span.name()))
+				.extracting(Span::traceId)
+				.containsExactlyInAnyOrder("000000000000000a", "000000000000000b");
+		then(spans).filteredOn(span -> "on-batch-record".equals(span.name()))
+				.allSatisfy(span -> {
+					then(span.parentId()).isEqualTo("0000000000000001");
+					then(span.tags()).containsEntry("kafka.batch.trace_id",
+							batchSpan.traceId());
+					then(span.tags()).containsEntry("kafka.batch.span_id",
+							batchSpan.id());
+				});
+	}
+
+	@Test
+	public void should_not_create_record_spans_for_records_without_a_producer_context() {
+		BatchMessageListener<String, String> listener = proxy(
+				(BatchMessageListener<String, String>) records -> {
+				});
+		ConsumerRecord<String, String> record = new ConsumerRecord<>("topic", 0, 0L,
+				"key", "value");
+
+		listener.onMessage(Arrays.asList(record, record("000000000000000a")));
+
+		then(this.reporter.getSpans()).extracting(Span::name)
+				.containsExactlyInAnyOrder("on-batch", "on-batch-record");
+		then(this.reporter.getSpans())
+				.filteredOn(span -> "on-batch-record".equals(span.name()))
+				.extracting(Span::traceId).containsExactly("000000000000000a");
+	}
+
+	@Test
+	public void should_tag_the_batch_and_record_spans_with_the_error() {
+		BatchMessageListener<String, String> listener = proxy(
+				(BatchMessageListener<String, String>) records -> {
+					throw new IllegalStateException("boom");
+				});
+
+		thenThrownBy(() -> listener.onMessage(Arrays.asList(record("000000000000000a"),
+				record("000000000000000b")))).isInstanceOf(IllegalStateException.class);
+
+		then(this.reporter.getSpans()).hasSize(3).allSatisfy(
+				span -> then(span.tags()).containsEntry("error", "boom"));
+	}
+
+	@Test
+	public void should_not_trace_an_empty_batch() {
+		BatchMessageListener<String, String> listener = proxy(
+				(BatchMessageListener<String, String>) records -> {
+				});
+
+		listener.onMessage(Arrays.asList());
+
+		then(this.reporter.getSpans()).isEmpty();
+	}
+
+	@Test
+	public void should_trace_a_record_listener_whose_first_call_had_no_record() {
+		MessageListener<String, String> listener = proxy(new StringListener());
+
+		listener.onMessage(null);
+		listener.onMessage(record("000000000000000a"));
+
+		then(this.reporter.getSpans()).extracting(Span::name)
+				.containsExactly("on-message");
+	}
+
+	@Test
+	public void should_not_trace_a_batch_that_has_no_records() {
+		BatchMessageListener<String, String> listener = proxy(
+				(BatchMessageListener<String, String>) records -> {
+				});
+
+		listener.onMessage((List) Arrays.asList("foo", "bar"));
+
+		then(this.reporter.getSpans()).isEmpty();
+	}
+
+	@Test
+	public void should_resolve_the_records_argument_from_the_method_signature()
+			throws Exception {
+		then(MessageListenerMethodInterceptor.recordsArgumentIndex(
+				Listeners.class.getMethod("onMessage", String.class,
+						ConsumerRecord.class),
+				Listeners.class)).isEqualTo(1);
+		then(MessageListenerMethodInterceptor.recordsArgumentIndex(
+				Listeners.class.getMethod("onMessage", List.class, List.class),
+				Listeners.class)).isEqualTo(1);
+		then(MessageListenerMethodInterceptor.recordsArgumentIndex(
+				Listeners.class.getMethod("onMessage", String.class), Listeners.class))
+						.isEqualTo(-1);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T proxy(T listener) {
+		ProxyFactory factory = new ProxyFactory(listener);
+		factory.addAdvice(this.interceptor);
+		return (T) factory.getProxy();
+	}
+
+	private ConsumerRecord<String, String> record(String traceId) {
+		ConsumerRecord<String, String> record = new ConsumerRecord<>("topic", 0, 0L,
+				"key", "value");
+		record.headers().add("b3", (traceId + "-0000000000000001-1")
+				.getBytes(StandardCharsets.UTF_8));
+		return record;
+	}
+
+	static class StringListener implements MessageListener<String, String> {
+
+		@Override
+		public void onMessage(ConsumerRecord<String, String> data) {
+
+		}
+
+	}
+
+	interface Listeners {
+
+		void onMessage(String name, ConsumerRecord<String, String> record);
+
+		void onMessage(List<String> names, List<ConsumerRecord<String, String>> records);
+
+		void onMessage(String name);
+
+	}
+
+}
@@ -16,7 +16,7 @@
 
 package org.springframework.cloud.sleuth.instrument.messaging;
 
-import brave.Tracer;
+import brave.Tracing;
 import brave.kafka.clients.KafkaTracing;
 import brave.sampler.Sampler;
 import brave.spring.rabbit.SpringRabbitTracing;
@@ -117,8 +117,8 @@ public class TraceMessagingAutoConfigurationTests {
 		}
 
 		@Bean
-		SleuthKafkaAspect sleuthKafkaAspect(KafkaTracing kafkaTracing, Tracer tracer) {
-			return new MySleuthKafkaAspect(kafkaTracing, tracer);
+		SleuthKafkaAspect sleuthKafkaAspect(KafkaTracing kafkaTracing, Tracing tracing) {
+			return new MySleuthKafkaAspect(kafkaTracing, tracing);
 		}
 
 		@Bean
@@ -160,8 +160,8 @@ class MySleuthKafkaAspect extends SleuthKafkaAspect {
 
 	boolean adapterWrapped;
 
-	MySleuthKafkaAspect(KafkaTracing kafkaTracing, Tracer tracer) {
-		super(kafkaTracing, tracer);
+	MySleuthKafkaAspect(KafkaTracing kafkaTracing, Tracing tracing) {
+		super(kafkaTracing, tracing);
 	}
 
 	@Override
@@ -16,11 +16,13 @@
 
 package org.springframework.cloud.sleuth.instrument.messaging;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import brave.Tracing;
 import brave.propagation.StrictScopeDecorator;
@@ -51,10 +53,12 @@ public class TracingChannelInterceptorTest {
 
 	List<Span> spans = new ArrayList<>();
 
-	ChannelInterceptor interceptor = TracingChannelInterceptor.create(Tracing.newBuilder()
+	Tracing tracing = Tracing.newBuilder()
 			.currentTraceContext(ThreadLocalCurrentTraceContext.newBuilder()
 					.addScopeDecorator(StrictScopeDecorator.create()).build())
-			.spanReporter(this.spans::add).build());
+			.spanReporter(this.spans::add).build();
+
+	ChannelInterceptor interceptor = TracingChannelInterceptor.create(this.tracing);
 
 	QueueChannel channel = new QueueChannel();
 
@@ -113,6 +117,93 @@ public class TracingChannelInterceptorTest {
 						"spanTraceId", "spanId", "spanSampled");
 	}
 
+	@Test
+	public void injectsOnlyB3Headers_whenLegacyHeadersDisabled() {
+		this.channel.addInterceptor(producerSideOnly(new TracingChannelInterceptor(
+				this.tracing, MessageHeaderPropagation.WITHOUT_LEGACY_HEADERS,
+				MessageHeaderPropagation.WITHOUT_LEGACY_HEADERS)));
+
+		this.channel.send(MessageBuilder.withPayload("foo")
+				.setHeader(TraceMessageHeaders.TRACE_ID_NAME, "000000000000000a")
+				.setHeader(TraceMessageHeaders.SPAN_ID_NAME, "000000000000000b")
+				.build());
+
+		Message<?> received = this.channel.receive();
+		assertThat(received.getHeaders()).containsKeys("X-B3-TraceId", "X-B3-SpanId")
+				.doesNotContainKeys(TraceMessageHeaders.TRACE_ID_NAME,
+						TraceMessageHeaders.SPAN_ID_NAME);
+		assertThat((Map) received.getHeaders().get(NATIVE_HEADERS))
+				.containsOnlyKeys("X-B3-TraceId", "X-B3-ParentSpanId", "X-B3-SpanId",
+						"X-B3-Sampled");
+		assertThat(received.getHeaders().get("X-B3-TraceId"))
+				.isEqualTo("000000000000000a");
+	}
+
+	@Test
+	public void injectsSingleBinaryHeader_whenB3SingleHeaderEnabled() {
+		this.channel.addInterceptor(producerSideOnly(new TracingChannelInterceptor(
+				this.tracing, MessageHeaderPropagation.INSTANCE,
+				MessageHeaderPropagation.INSTANCE, true)));
+
+		this.channel.send(MessageBuilder.withPayload("foo")
+				.setHeader(TraceMessageHeaders.TRACE_ID_NAME, "000000000000000a")
+				.setHeader(TraceMessageHeaders.SPAN_ID_NAME, "000000000000000b")
+				.build());
+
+		Message<?> received = this.channel.receive();
+		assertThat(received.getHeaders()).doesNotContainKeys("X-B3-TraceId",
+				"X-B3-SpanId", "X-B3-ParentSpanId", "X-B3-Sampled",
+				TraceMessageHeaders.TRACE_ID_NAME, TraceMessageHeaders.SPAN_ID_NAME);
+		assertThat(received.getHeaders().get("b3")).isInstanceOf(byte[].class);
+		assertThat(new String((byte[]) received.getHeaders().get("b3"),
+				StandardCharsets.UTF_8)).startsWith("000000000000000a-")
+						.endsWith("-1-000000000000000b");
+	}
+
+	@Test
+	public void readsSingleBinaryHeader() {
+		this.channel.addInterceptor(consumerSideOnly(new TracingChannelInterceptor(
+				this.tracing, MessageHeaderPropagation.INSTANCE,
+				MessageHeaderPropagation.INSTANCE, true)));
+
+		this.channel.send(MessageBuilder.withPayload("foo")
+				.setHeader("b3", "000000000000000a-000000000000000b-1"
+						.getBytes(StandardCharsets.UTF_8))
+				.build());
+		this.channel.receive();
+
+		assertThat(this.spans).hasSize(1).flatExtracting(Span::traceId, Span::parentId)
+				.containsExactly("000000000000000a", "000000000000000b");
+	}
+
+	@Test
+	public void errorMessageSingleBinaryHeaderRetained_whenB3SingleHeaderEnabled() {
+		this.channel.addInterceptor(producerSideOnly(new TracingChannelInterceptor(
+				this.tracing, MessageHeaderPropagation.INSTANCE,
+				MessageHeaderPropagation.INSTANCE, true)));
+		QueueChannel errorsReplyChannel = new QueueChannel();
+		Map<String, Object> errorChannelHeaders = new HashMap<>();
+		errorChannelHeaders.put(MessageHeaders.ERROR_CHANNEL, errorsReplyChannel);
+
+		this.channel.send(new ErrorMessage(
+				new MessagingException(MessageBuilder.withPayload("hi")
+						.setHeader("b3", "000000000000000a-000000000000000b-1"
+								.getBytes(StandardCharsets.UTF_8))
+						.build()),
+				errorChannelHeaders));
+
+		Message<?> received = this.channel.receive();
+		assertThat(received).isInstanceOf(ErrorMessage.class);
+		assertThat(received.getHeaders().getErrorChannel()).isSameAs(errorsReplyChannel);
+		assertThat(received.getHeaders()).doesNotContainKeys("X-B3-TraceId",
+				"X-B3-SpanId");
+		assertThat(new String((byte[]) received.getHeaders().get("b3"),
+				StandardCharsets.UTF_8)).startsWith("000000000000000a-")
+						.endsWith("-1-000000000000000b");
+		assertThat(this.spans).hasSize(1).flatExtracting(Span::traceId, Span::parentId)
+				.containsExactly("000000000000000a", "000000000000000b");
+	}
+
 	/**
 	 * If the producer is acting on an un-processed message (ex via a polling consumer),
 	 * it should look at trace headers when there is no span in scope, and use that as the
@@ -247,6 +338,26 @@ public class TracingChannelInterceptorTest {
 				.containsExactly(Span.Kind.CONSUMER, null, Span.Kind.PRODUCER);
 	}
 
+	@Test
+	public void channelNameResolvedOncePerChannel() {
+		AtomicInteger toStringCalls = new AtomicInteger();
+		ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel() {
+			@Override
+			public String toString() {
+				toStringCalls.incrementAndGet();
+				return "myChannel";
+			}
+		};
+		channel.addInterceptor(producerSideOnly(this.interceptor));
+
+		channel.send(MessageBuilder.withPayload("foo").build());
+		channel.send(MessageBuilder.withPayload("bar").build());
+
+		assertThat(this.spans).hasSize(2).extracting(span -> span.tags().get("channel"))
+				.containsExactly("myChannel", "myChannel");
+		assertThat(toStringCalls).hasValue(1);
+	}
+
 	@Test
 	public void errorMessageHeadersRetained() {
 		this.channel.addInterceptor(this.interceptor);
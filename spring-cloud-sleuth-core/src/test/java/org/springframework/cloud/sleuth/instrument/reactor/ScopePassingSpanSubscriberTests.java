@@ -16,16 +16,32 @@
 
 package org.springframework.cloud.sleuth.instrument.reactor;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import brave.Span;
 import brave.Tracer;
 import brave.Tracing;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import brave.propagation.TraceContext;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
 import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.ParallelFlux;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.context.Context;
 
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
 import static org.assertj.core.api.BDDAssertions.then;
 
 /**
@@ -66,4 +82,160 @@ public class ScopePassingSpanSubscriberTests {
 
 	}
 
+	@Test
+	public void should_treat_only_scheduler_operators_as_thread_hops() {
+		Flux<Integer> map = Flux.range(1, 3).map(i -> i);
+		Flux<Integer> publishOn = map.publishOn(Schedulers.single());
+		Flux<Integer> subscribeOn = map.subscribeOn(Schedulers.single());
+
+		then(ReactorSleuth.isThreadHop(map, Scannable.from(map))).isFalse();
+		then(ReactorSleuth.isThreadHop(publishOn, Scannable.from(publishOn))).isTrue();
+		then(ReactorSleuth.isThreadHop(subscribeOn, Scannable.from(subscribeOn)))
+				.isTrue();
+	}
+
+	@Test
+	public void should_recognize_reactor_scheduler_operators_by_their_class() {
+		Flux<Integer> subscribeOn = new SubscribeOnLookalike();
+		ParallelFlux<Integer> runOn = Flux.range(1, 3).parallel()
+				.runOn(Schedulers.single());
+
+		then(ReactorSleuth.isThreadHop(subscribeOn, Scannable.from(subscribeOn)))
+				.isFalse();
+		then(ReactorSleuth.isThreadHop(runOn, Scannable.from(runOn))).isTrue();
+	}
+
+	@Test
+	public void should_treat_lifted_scheduler_operators_as_thread_hops() {
+		Flux<Integer> subscribeOn = Flux.range(1, 3).subscribeOn(Schedulers.single());
+		Publisher<Integer> lifted = Operators.<Integer, Integer>liftPublisher(
+				(publisher, subscriber) -> subscriber).apply(subscribeOn);
+
+		then(ReactorSleuth.isThreadHop(lifted, Scannable.from(lifted))).isTrue();
+	}
+
+	@Test
+	public void should_pass_context_after_thread_hop_when_decorating_on_thread_hops() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("tracing", this.tracing);
+		Hooks.onEachOperator("test",
+				ReactorSleuth.threadHopScopePassingSpanOperator(beanFactory));
+		AtomicReference<TraceContext> contextInMap = new AtomicReference<>();
+		Span span = this.tracing.tracer().nextSpan().start();
+		try (Tracer.SpanInScope ws = this.tracing.tracer().withSpanInScope(span)) {
+			Flux.range(1, 3).publishOn(Schedulers.single()).map(i -> {
+				contextInMap.set(this.tracing.currentTraceContext().get());
+				return i;
+			}).blockLast();
+		}
+		finally {
+			Hooks.resetOnEachOperator("test");
+		}
+
+		then(contextInMap.get()).isEqualTo(span.context());
+	}
+
+	@Test
+	public void should_keep_fusion_and_pass_context_when_polling() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("tracing", this.tracing);
+		Hooks.onEachOperator("test", ReactorSleuth.scopePassingSpanOperator(beanFactory));
+		AtomicReference<TraceContext> contextInMap = new AtomicReference<>();
+		FusingSubscriber subscriber = new FusingSubscriber();
+		Span span = this.tracing.tracer().nextSpan().start();
+		try {
+			try (Tracer.SpanInScope ws = this.tracing.tracer().withSpanInScope(span)) {
+				Flux.range(1, 3).map(i -> {
+					contextInMap.set(this.tracing.currentTraceContext().get());
+					return i;
+				}).subscribe(subscriber);
+			}
+
+			then(subscriber.fusionMode).isEqualTo(Fuseable.SYNC);
+			then(this.tracing.currentTraceContext().get()).isNull();
+			then(subscriber.qs.poll()).isEqualTo(1);
+			then(contextInMap.get()).isEqualTo(span.context());
+		}
+		finally {
+			Hooks.resetOnEachOperator("test");
+		}
+	}
+
+	@Test
+	public void should_not_open_a_new_scope_when_the_context_is_already_in_scope() {
+		AtomicInteger decoratedScopes = new AtomicInteger();
+		Tracing tracing = Tracing.newBuilder()
+				.currentTraceContext(ThreadLocalCurrentTraceContext.newBuilder()
+						.addScopeDecorator((context, scope) -> {
+							decoratedScopes.incrementAndGet();
+							return scope;
+						}).build())
+				.build();
+		AtomicReference<TraceContext> contextInOnNext = new AtomicReference<>();
+		Span span = tracing.tracer().nextSpan().start();
+		try {
+			ScopePassingSpanSubscriber<Integer> subscriber = new ScopePassingSpanSubscriber<>(
+					new BaseSubscriber<Integer>() {
+						@Override
+						protected void hookOnNext(Integer value) {
+							contextInOnNext.set(tracing.currentTraceContext().get());
+						}
+					}, Context.empty(), tracing, span);
+			try (Tracer.SpanInScope ws = tracing.tracer().withSpanInScope(span)) {
+				decoratedScopes.set(0);
+
+				subscriber.onNext(1);
+
+				then(decoratedScopes.get()).isZero();
+				then(contextInOnNext.get()).isSameAs(span.context());
+			}
+
+			subscriber.onNext(2);
+
+			then(decoratedScopes.get()).isEqualTo(1);
+			then(contextInOnNext.get()).isEqualTo(span.context());
+		}
+		finally {
+			tracing.close();
+		}
+	}
+
+	static class FusingSubscriber implements CoreSubscriber<Integer> {
+
+		Fuseable.QueueSubscription<Integer> qs;
+
+		int fusionMode = -1;
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void onSubscribe(Subscription s) {
+			if (s instanceof Fuseable.QueueSubscription) {
+				this.qs = (Fuseable.QueueSubscription<Integer>) s;
+				this.fusionMode = this.qs.requestFusion(Fuseable.SYNC);
+			}
+		}
+
+		@Override
+		public void onNext(Integer integer) {
+		}
+
+		@Override
+		public void onError(Throwable t) {
+		}
+
+		@Override
+		public void onComplete() {
+		}
+
+	}
+
+	static class SubscribeOnLookalike extends Flux<Integer> {
+
+		@Override
+		public void subscribe(CoreSubscriber<? super Integer> actual) {
+			Flux.just(1).subscribe(actual);
+		}
+
+	}
+
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.reactor;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import brave.propagation.TraceContext;
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.sleuth.util.ArrayListSpanReporter;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class TraceContextPropagatingScheduleHookTests {
+
+	ArrayListSpanReporter reporter = new ArrayListSpanReporter();
+
+	Tracing tracing = Tracing.newBuilder().spanReporter(this.reporter).build();
+
+	TraceContextPropagatingScheduleHook hook = new TraceContextPropagatingScheduleHook(
+			beanFactory());
+
+	@After
+	public void close() {
+		this.tracing.close();
+	}
+
+	@Test
+	public void should_not_wrap_the_task_when_there_is_no_current_context() {
+		Runnable runnable = () -> {
+		};
+
+		then(this.hook.apply(runnable)).isSameAs(runnable);
+	}
+
+	@Test
+	public void should_pass_the_current_context_without_creating_spans() {
+		AtomicReference<TraceContext> contextInTask = new AtomicReference<>();
+		Span span = this.tracing.tracer().nextSpan().start();
+		Runnable runnable;
+		try (Tracer.SpanInScope ws = this.tracing.tracer().withSpanInScope(span)) {
+			runnable = this.hook.apply(
+					() -> contextInTask.set(this.tracing.currentTraceContext().get()));
+		}
+
+		runnable.run();
+
+		then(contextInTask.get()).isSameAs(span.context());
+		then(this.tracing.currentTraceContext().get()).isNull();
+		then(this.reporter.getSpans()).isEmpty();
+	}
+
+	@Test
+	public void should_pass_the_current_context_to_reactor_schedulers() {
+		Schedulers.onScheduleHook("test", this.hook);
+		AtomicReference<TraceContext> contextInTask = new AtomicReference<>();
+		Span span = this.tracing.tracer().nextSpan().start();
+		try (Tracer.SpanInScope ws = this.tracing.tracer().withSpanInScope(span)) {
+			Mono.fromRunnable(
+					() -> contextInTask.set(this.tracing.currentTraceContext().get()))
+					.subscribeOn(Schedulers.parallel()).block();
+		}
+		finally {
+			Schedulers.resetOnScheduleHook("test");
+		}
+
+		then(contextInTask.get()).isEqualTo(span.context());
+		then(this.reporter.getSpans()).isEmpty();
+	}
+
+	private StaticListableBeanFactory beanFactory() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("tracing", this.tracing);
+		return beanFactory;
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.web;
+
+import brave.http.HttpAdapter;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RouteHttpSamplerTests {
+
+	@Mock
+	HttpAdapter adapter;
+
+	SleuthWebProperties.RouteSampler properties = new SleuthWebProperties.RouteSampler();
+
+	@Test
+	public void should_rate_limit_each_route_separately() {
+		this.properties.setRate(1);
+		RouteHttpSampler sampler = new RouteHttpSampler(this.properties);
+
+		then(sample(sampler, "/health")).isTrue();
+		then(sample(sampler, "/orders/1")).isFalse();
+
+		then(sample(sampler, "/health")).isTrue();
+		then(sample(sampler, "/health")).isFalse();
+		then(sample(sampler, "/orders/2")).isTrue();
+		then(sample(sampler, "/orders/3")).isFalse();
+	}
+
+	@Test
+	public void should_share_a_budget_for_the_first_requests_of_the_routes() {
+		this.properties.setRate(1);
+		RouteHttpSampler sampler = new RouteHttpSampler(this.properties);
+
+		int sampled = 0;
+		for (int i = 0; i < 100; i++) {
+			if (sample(sampler, "/users/name" + (char) ('a' + i % 26) + i / 26)) {
+				sampled++;
+			}
+		}
+
+		then(sampled).isEqualTo(1);
+		then(sampler.routes()).hasSize(100);
+	}
+
+	@Test
+	public void should_use_the_settings_of_the_route() {
+		this.properties.setRate(1);
+		SleuthWebProperties.Route never = new SleuthWebProperties.Route();
+		never.setProbability(0f);
+		this.properties.getRoutes().put("/health", never);
+		SleuthWebProperties.Route always = new SleuthWebProperties.Route();
+		always.setProbability(1f);
+		this.properties.getRoutes().put("/orders/*", always);
+		RouteHttpSampler sampler = new RouteHttpSampler(this.properties);
+
+		then(sample(sampler, "/health")).isFalse();
+		then(sample(sampler, "/orders/1")).isTrue();
+		then(sample(sampler, "/orders/2")).isTrue();
+		then(sampler.routes()).isEmpty();
+	}
+
+	@Test
+	public void should_drop_the_least_recently_used_routes_above_the_maximum() {
+		this.properties.setMaxRoutes(10);
+		RouteHttpSampler sampler = new RouteHttpSampler(this.properties);
+
+		for (int i = 0; i < 100; i++) {
+			sample(sampler, "/health");
+			sample(sampler, "/users/name" + (char) ('a' + i % 26) + i / 26);
+		}
+
+		then(sampler.routes()).hasSizeLessThanOrEqualTo(10).contains("/health",
+				"/users/namev3");
+	}
+
+	@Test
+	public void should_not_sample_when_there_is_no_path() {
+		RouteHttpSampler sampler = new RouteHttpSampler(this.properties);
+
+		then(sampler.trySample(this.adapter, new Object())).isNull();
+	}
+
+	@Test
+	public void should_normalize_identifiers_in_the_path() {
+		then(RouteHttpSampler.normalize("")).isEqualTo("");
+		then(RouteHttpSampler.normalize("/")).isEqualTo("/");
+		then(RouteHttpSampler.normalize("/orders/")).isEqualTo("/orders");
+		then(RouteHttpSampler.normalize("/orders/123/")).isEqualTo("/orders/*");
+		then(RouteHttpSampler.normalize("/orders/123/items/4"))
+				.isEqualTo("/orders/*/items/*");
+		then(RouteHttpSampler
+				.normalize("/users/4c3a1e2b-98f1-4b9f-9d6e-0c1f2e3d4a5b/cart"))
+						.isEqualTo("/users/*/cart");
+		then(RouteHttpSampler.normalize("/blobs/0123456789abcdef0123"))
+				.isEqualTo("/blobs/*");
+		then(RouteHttpSampler.normalize("/api/v2/cafe")).isEqualTo("/api/v2/cafe");
+	}
+
+	@Test
+	public void should_fail_on_creation_for_invalid_probabilities() {
+		this.properties.setProbability(1.5f);
+
+		thenThrownBy(() -> new RouteHttpSampler(this.properties))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("spring.sleuth.web.route-sampler.probability");
+
+		this.properties.setProbability(null);
+		SleuthWebProperties.Route route = new SleuthWebProperties.Route();
+		route.setProbability(-0.1f);
+		this.properties.getRoutes().put("/health", route);
+
+		thenThrownBy(() -> new RouteHttpSampler(this.properties))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining(
+						"spring.sleuth.web.route-sampler.routes[/health].probability");
+	}
+
+	private Boolean sample(RouteHttpSampler sampler, String path) {
+		Object request = new Object();
+		BDDMockito.given(this.adapter.path(request)).willReturn(path);
+		return sampler.trySample(this.adapter, request);
+	}
+
+}
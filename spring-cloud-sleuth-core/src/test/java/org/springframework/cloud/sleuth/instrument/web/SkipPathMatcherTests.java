@@ -0,0 +1,100 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.web;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class SkipPathMatcherTests {
+
+	static final String SKIP_PATTERN = SleuthWebProperties.DEFAULT_SKIP_PATTERN
+			+ "|/actuator/(health|health/.*|info|info/.*)|/management.*";
+
+	static final List<String> PATHS = Arrays.asList("", "/", "/foo", "/foo/bar",
+			"/api-docs", "/api-docs/v2", "/api", "/swagger-ui.html", "/swagger",
+			"/image.png", "/static/styles.css", "/static/app.js", "/static/app.json",
+			"/index.html", "/htm", "/favicon.ico", "/favicon.icon", "/faviconXico",
+			"/hystrix.stream", "/hystrix.streams", "/hystrixXstream", "/hystrix.strea",
+			"/actuator", "/actuator/health", "/actuator/healthy", "/actuator/health/db",
+			"/actuator/info", "/actuator/metrics", "/management", "/management/env",
+			"/managemen", "/foo.png\n", "/swagger\n/foo", "png", ".png", "/a.png/b",
+			"/abc", "/a\nc", "/xyyyz", "/bc", "/bx", "a");
+
+	@Test
+	public void should_match_like_the_combined_skip_pattern() {
+		thenMatchesLikeThePattern(SKIP_PATTERN);
+	}
+
+	@Test
+	public void should_not_need_a_regular_expression_for_the_default_and_actuator_patterns() {
+		SkipPathMatcher matcher = SkipPathMatcher.compile(Pattern.compile(SKIP_PATTERN
+				+ "|/actuator/(health|health/.*|info|info/.*|metrics|metrics/.*)"));
+
+		then(matcher.remaining()).isNull();
+	}
+
+	@Test
+	public void should_match_like_patterns_that_need_a_regular_expression() {
+		thenMatchesLikeThePattern("/foo/[0-9]+|.*\\.png|/bar");
+		thenMatchesLikeThePattern("/api-docs.*|.*/health.*|/actuator/(health|[a-z]+)");
+		thenMatchesLikeThePattern("(?i)/FOO|/swagger.*");
+		thenMatchesLikeThePattern("\\Q/foo|/bar\\E|/baz");
+		thenMatchesLikeThePattern("(/foo)\\1|/bar");
+		thenMatchesLikeThePattern(".*");
+		thenMatchesLikeThePattern("");
+		thenMatchesLikeThePattern("/foo|");
+		thenMatchesLikeThePattern("/actuator/(health|info)+");
+		thenMatchesLikeThePattern("/foo\\.*|/bar\\\\.*");
+		thenMatchesLikeThePattern("/a.c|/x.y.z|/b(.|c)|.");
+	}
+
+	@Test
+	public void should_match_like_patterns_with_flags() {
+		Pattern pattern = Pattern.compile("/FOO.*", Pattern.CASE_INSENSITIVE);
+		SkipPathMatcher matcher = SkipPathMatcher.compile(pattern);
+
+		then(matcher.matches("/foo/bar")).isTrue();
+	}
+
+	@Test
+	public void should_split_only_top_level_alternatives() {
+		then(SkipPathMatcher.alternatives("/a|/b(c|d)|[|]|\\|"))
+				.containsExactly("/a", "/b(c|d)", "[|]", "\\|");
+	}
+
+	@Test
+	public void should_unescape_literals() {
+		then(SkipPathMatcher.literal("/favicon\\.ico")).isEqualTo("/favicon.ico");
+		then(SkipPathMatcher.literal("/favicon.ico")).isNull();
+		then(SkipPathMatcher.literal("/foo\\d")).isNull();
+	}
+
+	private void thenMatchesLikeThePattern(String regex) {
+		Pattern pattern = Pattern.compile(regex);
+		SkipPathMatcher matcher = SkipPathMatcher.compile(pattern);
+		for (String path : PATHS) {
+			then(matcher.matches(path)).as("[%s] matching [%s]", regex, path)
+					.isEqualTo(pattern.matcher(path).matches());
+		}
+	}
+
+}
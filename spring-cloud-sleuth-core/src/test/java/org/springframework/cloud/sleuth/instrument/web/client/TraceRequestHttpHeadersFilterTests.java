@@ -94,6 +94,25 @@ public class TraceRequestHttpHeadersFilterTests {
 				.isNotNull();
 	}
 
+	@Test
+	public void should_keep_the_first_value_and_prefer_the_request_headers() {
+		HttpHeadersFilter filter = TraceRequestHttpHeadersFilter.create(this.httpTracing);
+		MockServerHttpRequest request = MockServerHttpRequest.post("foo/bar")
+				.header("X-Hello", "World").build();
+		MockServerWebExchange exchange = MockServerWebExchange.builder(request).build();
+		HttpHeaders input = requestHeaders();
+		input.add("X-Hello-Request", "Other World");
+		input.add("X-Hello", "Input World");
+
+		HttpHeaders filteredHeaders = filter.filter(input, exchange);
+
+		BDDAssertions.then(filteredHeaders.get("X-Hello"))
+				.isEqualTo(Collections.singletonList("World"));
+		BDDAssertions.then(filteredHeaders.get("X-Hello-Request"))
+				.isEqualTo(Collections.singletonList("Request World"));
+		BDDAssertions.then(input.get("X-B3-TraceId")).isNull();
+	}
+
 	private HttpHeaders requestHeaders() {
 		HttpHeaders headers = new HttpHeaders();
 		headers.add("X-Hello-Request", "Request World");
@@ -16,6 +16,9 @@
 
 package org.springframework.cloud.sleuth.log;
 
+import java.util.Collections;
+import java.util.List;
+
 import brave.Span;
 import brave.Tracer;
 import brave.propagation.CurrentTraceContext.Scope;
@@ -52,6 +55,9 @@ public class Slf4JSpanLoggerTest {
 	@Autowired
 	Slf4jScopeDecorator slf4jScopeDecorator;
 
+	@Autowired
+	SleuthSlf4jProperties sleuthSlf4jProperties;
+
 	Span span;
 
 	@Before
@@ -130,4 +136,126 @@ public class Slf4JSpanLoggerTest {
 		assertThat(MDC.get("traceId")).isEqualTo("A");
 	}
 
+	@Test
+	public void should_pick_up_whitelisted_keys_when_properties_are_rebound()
+			throws Exception {
+		List<String> whitelistedMdcKeys = this.sleuthSlf4jProperties
+				.getWhitelistedMdcKeys();
+		ExtraFieldPropagation.set(this.span.context(), "my-baggage", "my-value");
+		ExtraFieldPropagation.set(this.span.context(), "my-propagation",
+				"my-propagation-value");
+		try {
+			this.sleuthSlf4jProperties
+					.setWhitelistedMdcKeys(Collections.singletonList("my-propagation"));
+
+			Scope scope = this.slf4jScopeDecorator.decorateScope(this.span.context(),
+					() -> {
+					});
+
+			assertThat(MDC.get("my-baggage")).isNullOrEmpty();
+			assertThat(MDC.get("my-propagation")).isEqualTo("my-propagation-value");
+
+			scope.close();
+
+			assertThat(MDC.get("my-propagation")).isNullOrEmpty();
+		}
+		finally {
+			this.sleuthSlf4jProperties.setWhitelistedMdcKeys(whitelistedMdcKeys);
+		}
+	}
+
+	@Test
+	public void should_not_set_legacy_entries_to_mdc_when_disabled() throws Exception {
+		this.sleuthSlf4jProperties.setLegacyMdcKeys(false);
+		try {
+			Scope scope = this.slf4jScopeDecorator.decorateScope(this.span.context(),
+					() -> {
+					});
+
+			assertThat(MDC.get("traceId"))
+					.isEqualTo(this.span.context().traceIdString());
+			assertThat(MDC.get("spanId")).isEqualTo(this.span.context().spanIdString());
+			assertThat(MDC.get("X-B3-TraceId")).isNullOrEmpty();
+			assertThat(MDC.get("X-B3-SpanId")).isNullOrEmpty();
+			assertThat(MDC.get("X-Span-Export")).isNullOrEmpty();
+
+			scope.close();
+
+			assertThat(MDC.get("traceId")).isNullOrEmpty();
+		}
+		finally {
+			this.sleuthSlf4jProperties.setLegacyMdcKeys(true);
+		}
+	}
+
+	@Test
+	public void should_keep_entries_in_mdc_when_the_same_context_is_scoped_again()
+			throws Exception {
+		Scope scope = this.slf4jScopeDecorator.decorateScope(this.span.context(), () -> {
+		});
+		Scope nested = this.slf4jScopeDecorator.decorateScope(this.span.context(),
+				() -> {
+				});
+
+		nested.close();
+
+		assertThat(MDC.get("traceId")).isEqualTo(this.span.context().traceIdString());
+		assertThat(MDC.get("spanId")).isEqualTo(this.span.context().spanIdString());
+
+		scope.close();
+
+		assertThat(MDC.get("traceId")).isNullOrEmpty();
+		assertThat(MDC.get("spanId")).isNullOrEmpty();
+	}
+
+	@Test
+	public void should_put_baggage_in_mdc_when_the_same_context_is_scoped_again()
+			throws Exception {
+		Scope scope = this.slf4jScopeDecorator.decorateScope(this.span.context(), () -> {
+		});
+
+		assertThat(MDC.get("my-baggage")).isNullOrEmpty();
+
+		ExtraFieldPropagation.set(this.span.context(), "my-baggage", "my-value");
+		Scope nested = this.slf4jScopeDecorator.decorateScope(this.span.context(),
+				() -> {
+				});
+
+		assertThat(MDC.get("my-baggage")).isEqualTo("my-value");
+
+		nested.close();
+
+		assertThat(MDC.get("my-baggage")).isNullOrEmpty();
+
+		scope.close();
+	}
+
+	@Test
+	public void should_set_entries_to_mdc_when_the_same_context_is_scoped_again_after_mdc_was_cleared()
+			throws Exception {
+		List<String> whitelistedMdcKeys = this.sleuthSlf4jProperties
+				.getWhitelistedMdcKeys();
+		this.sleuthSlf4jProperties.setWhitelistedMdcKeys(Collections.emptyList());
+		try {
+			Scope scope = this.slf4jScopeDecorator.decorateScope(this.span.context(),
+					() -> {
+					});
+			MDC.clear();
+
+			Scope nested = this.slf4jScopeDecorator
+					.decorateScope(this.span.context(), () -> {
+					});
+
+			assertThat(MDC.get("traceId"))
+					.isEqualTo(this.span.context().traceIdString());
+			assertThat(MDC.get("spanId")).isEqualTo(this.span.context().spanIdString());
+
+			nested.close();
+			scope.close();
+		}
+		finally {
+			this.sleuthSlf4jProperties.setWhitelistedMdcKeys(whitelistedMdcKeys);
+		}
+	}
+
 }
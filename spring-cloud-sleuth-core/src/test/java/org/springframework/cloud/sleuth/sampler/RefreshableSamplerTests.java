@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.sampler;
+
+import java.util.Collections;
+
+import brave.sampler.Sampler;
+import org.junit.Test;
+
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class RefreshableSamplerTests {
+
+	MockEnvironment environment = new MockEnvironment();
+
+	@Test
+	public void should_swap_the_delegate_when_sampler_properties_change() {
+		SamplerProperties properties = new SamplerProperties();
+		properties.setProbability(0f);
+		RefreshableSampler sampler = new RefreshableSampler(this.environment,
+				properties);
+		then(sampler.isSampled(1L)).isFalse();
+
+		this.environment.setProperty("spring.sleuth.sampler.probability", "1.0");
+		sampler.onApplicationEvent(new EnvironmentChangeEvent(this.environment,
+				Collections.singleton("spring.sleuth.sampler.probability")));
+
+		then(sampler.isSampled(1L)).isTrue();
+	}
+
+	@Test
+	public void should_switch_to_rate_limiting_sampler_when_rate_set() {
+		RefreshableSampler sampler = new RefreshableSampler(this.environment,
+				new SamplerProperties());
+
+		this.environment.setProperty("spring.sleuth.sampler.rate", "10");
+		sampler.onApplicationEvent(new EnvironmentChangeEvent(this.environment,
+				Collections.singleton("SPRING_SLEUTH_SAMPLER_RATE")));
+
+		then(sampler.delegate()).isInstanceOf(RateLimitingSampler.class);
+	}
+
+	@Test
+	public void should_not_swap_the_delegate_when_other_properties_change() {
+		RefreshableSampler sampler = new RefreshableSampler(this.environment,
+				new SamplerProperties());
+		Sampler delegate = sampler.delegate();
+
+		this.environment.setProperty("spring.sleuth.sampler.rate", "10");
+		sampler.onApplicationEvent(new EnvironmentChangeEvent(this.environment,
+				Collections.singleton("foo.bar")));
+
+		then(sampler.delegate()).isSameAs(delegate);
+	}
+
+	@Test
+	public void should_not_swap_the_delegate_when_properties_with_the_same_prefix_change() {
+		RefreshableSampler sampler = new RefreshableSampler(this.environment,
+				new SamplerProperties());
+		Sampler delegate = sampler.delegate();
+
+		this.environment.setProperty("spring.sleuth.sampler.rate", "10");
+		sampler.onApplicationEvent(new EnvironmentChangeEvent(this.environment,
+				Collections.singleton("spring.sleuth.samplerx.rate")));
+
+		then(sampler.delegate()).isSameAs(delegate);
+	}
+
+}
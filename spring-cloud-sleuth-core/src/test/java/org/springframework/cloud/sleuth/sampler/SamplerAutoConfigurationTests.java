@@ -45,4 +45,14 @@ public class SamplerAutoConfigurationTests {
 		BDDAssertions.then(sampler).isInstanceOf(ProbabilityBasedSampler.class);
 	}
 
+	@Test
+	public void should_use_trace_id_probability_sampler_when_type_set() {
+		SamplerProperties properties = new SamplerProperties();
+		properties.setProbabilityType(SamplerProperties.ProbabilityType.TRACE_ID);
+
+		Sampler sampler = SamplerAutoConfiguration.samplerFromProps(properties);
+
+		BDDAssertions.then(sampler).isInstanceOf(TraceIdProbabilityBasedSampler.class);
+	}
+
 }
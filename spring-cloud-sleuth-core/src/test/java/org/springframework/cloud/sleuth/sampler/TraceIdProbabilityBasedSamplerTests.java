@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.sampler;
+
+import java.util.Random;
+
+import brave.sampler.Sampler;
+import org.assertj.core.data.Percentage;
+import org.junit.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class TraceIdProbabilityBasedSamplerTests {
+
+	private static Random RANDOM = new Random();
+
+	SamplerProperties samplerConfiguration = new SamplerProperties();
+
+	@Test
+	public void should_pass_all_samples_when_config_has_1_probability() {
+		this.samplerConfiguration.setProbability(1f);
+		Sampler sampler = new TraceIdProbabilityBasedSampler(this.samplerConfiguration);
+
+		for (int i = 0; i < 10; i++) {
+			then(sampler.isSampled(RANDOM.nextLong())).isTrue();
+		}
+		then(sampler.isSampled(Long.MAX_VALUE)).isTrue();
+		then(sampler.isSampled(Long.MIN_VALUE)).isTrue();
+	}
+
+	@Test
+	public void should_reject_all_samples_when_config_has_0_probability() {
+		this.samplerConfiguration.setProbability(0f);
+		Sampler sampler = new TraceIdProbabilityBasedSampler(this.samplerConfiguration);
+
+		for (int i = 0; i < 10; i++) {
+			then(sampler.isSampled(RANDOM.nextLong())).isFalse();
+		}
+		then(sampler.isSampled(0L)).isFalse();
+	}
+
+	@Test
+	public void should_pass_given_percent_of_samples() {
+		this.samplerConfiguration.setProbability(0.35f);
+
+		int numberOfSampledElements = countNumberOfSampledElements(100_000);
+
+		then(numberOfSampledElements).isCloseTo(35_000, Percentage.withPercentage(5));
+	}
+
+	@Test
+	public void should_pass_fractions_of_a_percent_of_samples() {
+		this.samplerConfiguration.setProbability(0.005f);
+
+		int numberOfSampledElements = countNumberOfSampledElements(1_000_000);
+
+		then(numberOfSampledElements).isCloseTo(5_000, Percentage.withPercentage(10));
+	}
+
+	@Test
+	public void should_make_the_same_decision_for_the_same_trace_id() {
+		this.samplerConfiguration.setProbability(0.5f);
+		Sampler first = new TraceIdProbabilityBasedSampler(this.samplerConfiguration);
+		Sampler second = new TraceIdProbabilityBasedSampler(this.samplerConfiguration);
+
+		for (int i = 0; i < 1000; i++) {
+			long traceId = RANDOM.nextLong();
+			then(first.isSampled(traceId)).isEqualTo(second.isSampled(traceId));
+		}
+	}
+
+	private int countNumberOfSampledElements(int numberOfIterations) {
+		Sampler sampler = new TraceIdProbabilityBasedSampler(this.samplerConfiguration);
+		int passedCounter = 0;
+		for (int i = 0; i < numberOfIterations; i++) {
+			boolean passed = sampler.isSampled(RANDOM.nextLong());
+			passedCounter = passedCounter + (passed ? 1 : 0);
+		}
+		return passedCounter;
+	}
+
+}
@@ -17,18 +17,23 @@
 package org.springframework.cloud.sleuth.zipkin2;
 
 import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import zipkin2.Endpoint;
 
 import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
 import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+import org.springframework.cloud.client.discovery.event.InstanceRegisteredEvent;
 import org.springframework.cloud.client.serviceregistry.Registration;
 import org.springframework.cloud.commons.util.InetUtils;
 import org.springframework.cloud.commons.util.InetUtilsProperties;
+import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -42,16 +47,28 @@ import org.springframework.util.StringUtils;
  *
  * You can override the name using {@link ZipkinProperties.Service#setName(String)}
  *
+ * The endpoint is computed once and recomputed only after the web server got
+ * initialized, the environment changed or the instance got registered.
+ *
  * @author Dave Syer
  * @since 1.0.0
  */
-public class DefaultEndpointLocator implements EndpointLocator,
-		ApplicationListener<ServletWebServerInitializedEvent> {
+public class DefaultEndpointLocator
+		implements EndpointLocator, ApplicationListener<ApplicationEvent> {
 
 	private static final Log log = LogFactory.getLog(DefaultEndpointLocator.class);
 
 	private static final String IP_ADDRESS_PROP_NAME = "spring.cloud.client.ipAddress";
 
+	private static final String MANAGEMENT_SERVER_NAMESPACE = "management";
+
+	// spring-cloud-context is optional
+	private static final Class<?> ENVIRONMENT_CHANGE_EVENT_CLASS = eventClass(
+			"org.springframework.cloud.context.environment.EnvironmentChangeEvent");
+
+	private static final Class<?> REFRESH_SCOPE_REFRESHED_EVENT_CLASS = eventClass(
+			"org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent");
+
 	private final Registration registration;
 
 	private final ServerProperties serverProperties;
@@ -60,10 +77,13 @@ public class DefaultEndpointLocator implements EndpointLocator,
 
 	private final ZipkinProperties zipkinProperties;
 
-	private Integer port;
+	private volatile Integer port;
 
 	private InetAddress firstNonLoopbackAddress;
 
+	private final AtomicReference<CachedEndpoint> endpoint = new AtomicReference<>(
+			new CachedEndpoint(null));
+
 	public DefaultEndpointLocator(Registration registration,
 			ServerProperties serverProperties, Environment environment,
 			ZipkinProperties zipkinProperties, InetUtils inetUtils) {
@@ -81,8 +101,29 @@ public class DefaultEndpointLocator implements EndpointLocator,
 		return inetUtils.findFirstNonLoopbackAddress();
 	}
 
+	private static Class<?> eventClass(String className) {
+		return ClassUtils.isPresent(className, null)
+				? ClassUtils.resolveClassName(className, null) : null;
+	}
+
 	@Override
 	public Endpoint local() {
+		CachedEndpoint cached = this.endpoint.get();
+		if (cached.endpoint != null) {
+			return cached.endpoint;
+		}
+		Endpoint endpoint = createEndpoint();
+		// not cached if the endpoint got invalidated while it was being created
+		this.endpoint.compareAndSet(cached, new CachedEndpoint(endpoint));
+		return endpoint;
+	}
+
+	private void invalidateEndpoint() {
+		// always a new instance, so that a concurrent local() can't cache a stale value
+		this.endpoint.set(new CachedEndpoint(null));
+	}
+
+	private Endpoint createEndpoint() {
 		String serviceName = getLocalServiceName();
 		if (log.isDebugEnabled()) {
 			log.debug("Span will contain serviceName [" + serviceName + "]");
@@ -108,15 +149,44 @@ public class DefaultEndpointLocator implements EndpointLocator,
 	}
 
 	@Override
+	public void onApplicationEvent(ApplicationEvent event) {
+		if (event instanceof WebServerInitializedEvent) {
+			onWebServerInitialized((WebServerInitializedEvent) event);
+		}
+		else if (event instanceof InstanceRegisteredEvent
+				|| isInstance(ENVIRONMENT_CHANGE_EVENT_CLASS, event)
+				|| isInstance(REFRESH_SCOPE_REFRESHED_EVENT_CLASS, event)) {
+			invalidateEndpoint();
+		}
+	}
+
+	/**
+	 * Kept for backwards compatibility.
+	 * @param event servlet web server initialized event
+	 */
 	public void onApplicationEvent(ServletWebServerInitializedEvent event) {
-		this.port = event.getSource().getPort();
+		onWebServerInitialized(event);
+	}
+
+	private void onWebServerInitialized(WebServerInitializedEvent event) {
+		// the port of a separate management server is not the one of the application
+		if (MANAGEMENT_SERVER_NAMESPACE
+				.equals(event.getApplicationContext().getServerNamespace())) {
+			return;
+		}
+		this.port = event.getWebServer().getPort();
+		invalidateEndpoint();
+	}
+
+	private boolean isInstance(Class<?> eventClass, ApplicationEvent event) {
+		return eventClass != null && eventClass.isInstance(event);
 	}
 
 	private Integer getPort() {
-		if (this.port != null) {
-			return this.port;
+		Integer port = this.port;
+		if (port != null) {
+			return port;
 		}
-		Integer port;
 		if (this.serverProperties != null && this.serverProperties.getPort() != null
 				&& this.serverProperties.getPort() > 0) {
 			port = this.serverProperties.getPort();
@@ -142,4 +212,17 @@ public class DefaultEndpointLocator implements EndpointLocator,
 		}
 	}
 
+	/**
+	 * Holder of the cached endpoint, {@code null} if it needs to be created.
+	 */
+	private static final class CachedEndpoint {
+
+		final Endpoint endpoint;
+
+		CachedEndpoint(Endpoint endpoint) {
+			this.endpoint = endpoint;
+		}
+
+	}
+
 }
@@ -18,7 +18,8 @@ package org.springframework.cloud.sleuth.zipkin2;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 
 import org.springframework.http.HttpRequest;
 import org.springframework.http.client.ClientHttpRequestExecution;
@@ -44,20 +45,96 @@ public class DefaultZipkinRestTemplateCustomizer implements ZipkinRestTemplateCu
 	@Override
 	public void customize(RestTemplate restTemplate) {
 		if (this.zipkinProperties.getCompression().isEnabled()) {
-			restTemplate.getInterceptors().add(0, new GZipInterceptor());
+			restTemplate.getInterceptors().add(0, new GZipInterceptor(
+					this.zipkinProperties.getCompression().getMinRequestSize()));
 		}
 	}
 
-	private class GZipInterceptor implements ClientHttpRequestInterceptor {
+	private static final class GZipInterceptor implements ClientHttpRequestInterceptor {
+
+		private final int minRequestSize;
+
+		private GZipInterceptor(int minRequestSize) {
+			this.minRequestSize = minRequestSize;
+		}
 
 		public ClientHttpResponse intercept(HttpRequest request, byte[] body,
 				ClientHttpRequestExecution execution) throws IOException {
+			if (body.length < this.minRequestSize) {
+				return execution.execute(request, body);
+			}
 			request.getHeaders().add("Content-Encoding", "gzip");
-			ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
-			try (GZIPOutputStream compressor = new GZIPOutputStream(gzipped)) {
-				compressor.write(body);
+			return execution.execute(request, GZipCompressor.gzip(body));
+		}
+
+	}
+
+	/**
+	 * Writes the GZip format with a {@link Deflater} and an output buffer that are reused
+	 * for all the requests sent from the same thread, instead of creating them for each
+	 * request like {@link java.util.zip.GZIPOutputStream} does.
+	 */
+	public static final class GZipCompressor {
+
+		// spans are sent from the reporter's flush thread, so there's typically only one
+		private static final ThreadLocal<GZipCompressor> COMPRESSOR = ThreadLocal
+				.withInitial(GZipCompressor::new);
+
+		private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0,
+				0, 0, 0, 0, 0, 0 };
+
+		// don't keep the buffer of an exceptionally big request for the next ones
+		private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+		private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION,
+				true);
+
+		private final CRC32 crc = new CRC32();
+
+		private final byte[] chunk = new byte[8192];
+
+		private ByteArrayOutputStream buffer = new ByteArrayOutputStream(
+				this.chunk.length);
+
+		GZipCompressor() {
+		}
+
+		/**
+		 * @param body bytes to compress
+		 * @return the body in the GZip format, compressed with the compressor of the
+		 * current thread
+		 */
+		public static byte[] gzip(byte[] body) {
+			return COMPRESSOR.get().compress(body);
+		}
+
+		byte[] compress(byte[] body) {
+			this.deflater.reset();
+			this.crc.reset();
+			this.buffer.reset();
+			this.buffer.write(HEADER, 0, HEADER.length);
+			this.deflater.setInput(body);
+			this.deflater.finish();
+			while (!this.deflater.finished()) {
+				int length = this.deflater.deflate(this.chunk);
+				this.buffer.write(this.chunk, 0, length);
+			}
+			this.crc.update(body, 0, body.length);
+			writeInt((int) this.crc.getValue());
+			writeInt(body.length);
+			byte[] compressed = this.buffer.toByteArray();
+			if (compressed.length > MAX_RETAINED_BUFFER_SIZE) {
+				this.buffer = new ByteArrayOutputStream(this.chunk.length);
 			}
-			return execution.execute(request, gzipped.toByteArray());
+			return compressed;
+		}
+
+		private void writeInt(int value) {
+			// GZip trailer values are little endian
+			this.buffer.write(value & 0xff);
+			this.buffer.write((value >> 8) & 0xff);
+			this.buffer.write((value >> 16) & 0xff);
+			this.buffer.write((value >> 24) & 0xff);
 		}
 
 	}
@@ -18,7 +18,9 @@ package org.springframework.cloud.sleuth.zipkin2;
 
 import java.util.concurrent.TimeUnit;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
 import zipkin2.Span;
+import zipkin2.codec.BytesEncoder;
 import zipkin2.reporter.AsyncReporter;
 import zipkin2.reporter.Reporter;
 import zipkin2.reporter.ReporterMetrics;
@@ -85,10 +87,23 @@ public class ZipkinAutoConfiguration {
 	@ConditionalOnMissingBean(name = REPORTER_BEAN_NAME)
 	public Reporter<Span> reporter(ReporterMetrics reporterMetrics,
 			ZipkinProperties zipkin, @Qualifier(SENDER_BEAN_NAME) Sender sender) {
-		// historical constraint. Note: AsyncReporter supports memory bounds
-		return AsyncReporter.builder(sender).queuedMaxSpans(1000)
+		return asyncReporter(reporterMetrics, zipkin, sender, zipkin.getEncoder());
+	}
+
+	static AsyncReporter<Span> asyncReporter(ReporterMetrics reporterMetrics,
+			ZipkinProperties zipkin, Sender sender, BytesEncoder<Span> encoder) {
+		AsyncReporter.Builder builder = AsyncReporter.builder(sender)
+				.queuedMaxSpans(zipkin.getQueuedMaxSpans())
 				.messageTimeout(zipkin.getMessageTimeout(), TimeUnit.SECONDS)
-				.metrics(reporterMetrics).build(zipkin.getEncoder());
+				.closeTimeout(zipkin.getCloseTimeout(), TimeUnit.SECONDS)
+				.metrics(reporterMetrics);
+		if (zipkin.getQueuedMaxBytes() != null) {
+			builder.queuedMaxBytes(zipkin.getQueuedMaxBytes());
+		}
+		if (zipkin.getMessageMaxBytes() != null) {
+			builder.messageMaxBytes(zipkin.getMessageMaxBytes());
+		}
+		return builder.build(encoder);
 	}
 
 	@Bean
@@ -98,6 +113,19 @@ public class ZipkinAutoConfiguration {
 		return new DefaultZipkinRestTemplateCustomizer(zipkinProperties);
 	}
 
+	@Configuration
+	@ConditionalOnClass(MeterBinder.class)
+	protected static class ZipkinReporterMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		ZipkinReporterMeterBinder zipkinReporterMeterBinder(
+				ReporterMetrics reporterMetrics) {
+			return new ZipkinReporterMeterBinder(reporterMetrics);
+		}
+
+	}
+
 	@Configuration
 	@ConditionalOnMissingBean(EndpointLocator.class)
 	@ConditionalOnProperty(value = "spring.zipkin.locator.discovery.enabled", havingValue = "false", matchIfMissing = true)
@@ -19,11 +19,9 @@ package org.springframework.cloud.sleuth.zipkin2;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 import zipkin2.Span;
 import zipkin2.codec.BytesEncoder;
-import zipkin2.reporter.AsyncReporter;
 import zipkin2.reporter.InMemoryReporterMetrics;
 import zipkin2.reporter.Reporter;
 import zipkin2.reporter.ReporterMetrics;
@@ -83,10 +81,8 @@ public class ZipkinBackwardsCompatibilityAutoConfiguration {
 				Arrays.asList(beanFactory.getBeanNamesForType(Sender.class)));
 		beanNames.remove(ZipkinAutoConfiguration.SENDER_BEAN_NAME);
 		Sender sender = (Sender) beanFactory.getBean(beanNames.get(0));
-		// historical constraint. Note: AsyncReporter supports memory bounds
-		return AsyncReporter.builder(sender).queuedMaxSpans(1000)
-				.messageTimeout(zipkin.getMessageTimeout(), TimeUnit.SECONDS)
-				.metrics(reporterMetrics).build(spanBytesEncoder);
+		return ZipkinAutoConfiguration.asyncReporter(reporterMetrics, zipkin, sender,
+				spanBytesEncoder);
 	}
 
 	/**
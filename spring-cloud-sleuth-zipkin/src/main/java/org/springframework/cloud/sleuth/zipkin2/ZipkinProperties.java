@@ -52,6 +52,36 @@ public class ZipkinProperties {
 	 */
 	private int messageTimeout = 1;
 
+	/**
+	 * Maximum number of spans that can be queued before being sent to Zipkin. Spans
+	 * reported above that limit are dropped.
+	 */
+	private int queuedMaxSpans = 10000;
+
+	/**
+	 * Maximum size in bytes of the queued spans. Spans reported above that limit are
+	 * dropped. When not set, defaults to 1% of the heap.
+	 */
+	private Integer queuedMaxBytes;
+
+	/**
+	 * Maximum size in bytes of a batch of spans sent to Zipkin. When not set, defaults to
+	 * the maximum message size of the sender.
+	 */
+	private Integer messageMaxBytes;
+
+	/**
+	 * Timeout in seconds to wait for the pending spans to be sent to Zipkin when the
+	 * reporter gets closed.
+	 */
+	private int closeTimeout = 1;
+
+	/**
+	 * Time in seconds for which the Zipkin instance picked by the load balancer is
+	 * reused. Set to 0 to pick an instance for each message.
+	 */
+	private int instanceCacheTtl = 5;
+
 	/**
 	 * Encoding type of spans sent to Zipkin. Set to {@link SpanBytesEncoder#JSON_V1} if
 	 * your server is not recent.
@@ -107,6 +137,38 @@ public class ZipkinProperties {
 		this.messageTimeout = messageTimeout;
 	}
 
+	public int getQueuedMaxSpans() {
+		return this.queuedMaxSpans;
+	}
+
+	public void setQueuedMaxSpans(int queuedMaxSpans) {
+		this.queuedMaxSpans = queuedMaxSpans;
+	}
+
+	public Integer getQueuedMaxBytes() {
+		return this.queuedMaxBytes;
+	}
+
+	public void setQueuedMaxBytes(Integer queuedMaxBytes) {
+		this.queuedMaxBytes = queuedMaxBytes;
+	}
+
+	public Integer getMessageMaxBytes() {
+		return this.messageMaxBytes;
+	}
+
+	public void setMessageMaxBytes(Integer messageMaxBytes) {
+		this.messageMaxBytes = messageMaxBytes;
+	}
+
+	public int getCloseTimeout() {
+		return this.closeTimeout;
+	}
+
+	public void setCloseTimeout(int closeTimeout) {
+		this.closeTimeout = closeTimeout;
+	}
+
 	public Compression getCompression() {
 		return this.compression;
 	}
@@ -123,6 +185,14 @@ public class ZipkinProperties {
 		this.service = service;
 	}
 
+	public int getInstanceCacheTtl() {
+		return this.instanceCacheTtl;
+	}
+
+	public void setInstanceCacheTtl(int instanceCacheTtl) {
+		this.instanceCacheTtl = instanceCacheTtl;
+	}
+
 	public SpanBytesEncoder getEncoder() {
 		return this.encoder;
 	}
@@ -136,6 +206,12 @@ public class ZipkinProperties {
 
 		private boolean enabled = false;
 
+		/**
+		 * Minimum size in bytes of a batch of spans for it to be gzipped. Smaller batches
+		 * are sent as they are, since compressing them saves little.
+		 */
+		private int minRequestSize = 1024;
+
 		public boolean isEnabled() {
 			return this.enabled;
 		}
@@ -144,6 +220,14 @@ public class ZipkinProperties {
 			this.enabled = enabled;
 		}
 
+		public int getMinRequestSize() {
+			return this.minRequestSize;
+		}
+
+		public void setMinRequestSize(int minRequestSize) {
+			this.minRequestSize = minRequestSize;
+		}
+
 	}
 
 	/**
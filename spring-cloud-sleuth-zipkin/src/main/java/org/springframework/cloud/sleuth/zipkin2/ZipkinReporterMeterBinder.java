@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2;
+
+import java.util.function.ToDoubleFunction;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import zipkin2.reporter.InMemoryReporterMetrics;
+import zipkin2.reporter.ReporterMetrics;
+
+/**
+ * Exposes the counts gathered by the {@link InMemoryReporterMetrics} of the span
+ * reporter as Micrometer meters. The meters read the counts when they get published, so
+ * the reporter itself doesn't pay anything extra per span.
+ *
+ * @since 2.2.0
+ */
+class ZipkinReporterMeterBinder implements MeterBinder {
+
+	private static final String PREFIX = "zipkin.reporter.";
+
+	private final ReporterMetrics reporterMetrics;
+
+	ZipkinReporterMeterBinder(ReporterMetrics reporterMetrics) {
+		this.reporterMetrics = reporterMetrics;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		if (!(this.reporterMetrics instanceof InMemoryReporterMetrics)) {
+			return;
+		}
+		InMemoryReporterMetrics metrics = (InMemoryReporterMetrics) this.reporterMetrics;
+		counter(registry, metrics, "messages", InMemoryReporterMetrics::messages,
+				"messages", "Messages sent to Zipkin");
+		counter(registry, metrics, "messages.dropped",
+				InMemoryReporterMetrics::messagesDropped, "messages",
+				"Messages that could not be sent to Zipkin");
+		counter(registry, metrics, "message.bytes",
+				InMemoryReporterMetrics::messageBytes, "bytes",
+				"Bytes of the messages sent to Zipkin");
+		counter(registry, metrics, "spans", InMemoryReporterMetrics::spans, "spans",
+				"Spans reported");
+		counter(registry, metrics, "spans.dropped",
+				InMemoryReporterMetrics::spansDropped, "spans",
+				"Spans dropped because the queue was full or their message could not be sent");
+		counter(registry, metrics, "span.bytes", InMemoryReporterMetrics::spanBytes,
+				"bytes", "Bytes of the encoded spans reported");
+		Gauge.builder(PREFIX + "queued.spans", metrics,
+				InMemoryReporterMetrics::queuedSpans).baseUnit("spans")
+				.description("Spans waiting in the queue to be sent to Zipkin")
+				.register(registry);
+		Gauge.builder(PREFIX + "queued.bytes", metrics,
+				InMemoryReporterMetrics::queuedBytes).baseUnit("bytes")
+				.description("Bytes of the spans waiting in the queue to be sent to Zipkin")
+				.register(registry);
+	}
+
+	private void counter(MeterRegistry registry, InMemoryReporterMetrics metrics,
+			String name, ToDoubleFunction<InMemoryReporterMetrics> count, String baseUnit,
+			String description) {
+		FunctionCounter.builder(PREFIX + name, metrics, count).baseUnit(baseUnit)
+				.description(description).register(registry);
+	}
+
+}
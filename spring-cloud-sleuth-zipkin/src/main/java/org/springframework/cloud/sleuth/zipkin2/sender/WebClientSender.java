@@ -0,0 +1,263 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2.sender;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Mono;
+import zipkin2.Call;
+import zipkin2.Callback;
+import zipkin2.CheckResult;
+import zipkin2.Span;
+import zipkin2.codec.BytesEncoder;
+import zipkin2.codec.Encoding;
+import zipkin2.reporter.BytesMessageEncoder;
+import zipkin2.reporter.ReporterMetrics;
+import zipkin2.reporter.Sender;
+
+import org.springframework.cloud.sleuth.zipkin2.DefaultZipkinRestTemplateCustomizer.GZipCompressor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static zipkin2.codec.SpanBytesEncoder.JSON_V2;
+
+/**
+ * Sends spans to Zipkin with a non-blocking {@link WebClient}.
+ *
+ * <p>
+ * {@link Call#execute()}, which is what the {@code AsyncReporter} flush thread calls,
+ * doesn't wait for the response. It only waits for a free slot when
+ * {@code maxInFlightRequests} batches are already being sent, so that several batches
+ * can be sent over the pooled connections at the same time. As the reporter doesn't get
+ * to see the outcome of such requests, failures are counted in the
+ * {@link ReporterMetrics} by the sender itself.
+ *
+ * <p>
+ * The spans are always sent to the configured base URL. Contrary to the
+ * {@code RestTemplate} based sender, Zipkin is not looked up with a
+ * {@code ZipkinLoadBalancer}.
+ *
+ * @since 2.2.0
+ */
+final class WebClientSender extends Sender {
+
+	private static final Log log = LogFactory.getLog(WebClientSender.class);
+
+	final WebClient webClient;
+
+	final String url;
+
+	final Encoding encoding;
+
+	final MediaType mediaType;
+
+	final BytesMessageEncoder messageEncoder;
+
+	final boolean compressionEnabled;
+
+	final int compressionMinRequestSize;
+
+	final ReporterMetrics metrics;
+
+	final int maxInFlightRequests;
+
+	final Semaphore inFlightRequests;
+
+	final Duration closeTimeout;
+
+	/**
+	 * close is typically called from a different thread.
+	 */
+	volatile boolean closeCalled;
+
+	WebClientSender(WebClient webClient, String baseUrl, BytesEncoder<Span> encoder,
+			boolean compressionEnabled, int compressionMinRequestSize,
+			ReporterMetrics metrics, int maxInFlightRequests, Duration closeTimeout) {
+		this.webClient = webClient;
+		this.encoding = encoder.encoding();
+		if (encoder.equals(JSON_V2)) {
+			this.mediaType = MediaType.APPLICATION_JSON;
+			this.url = baseUrl + (baseUrl.endsWith("/") ? "" : "/") + "api/v2/spans";
+		}
+		else if (this.encoding == Encoding.PROTO3) {
+			this.mediaType = MediaType.parseMediaType("application/x-protobuf");
+			this.url = baseUrl + (baseUrl.endsWith("/") ? "" : "/") + "api/v2/spans";
+		}
+		else if (this.encoding == Encoding.JSON) {
+			this.mediaType = MediaType.APPLICATION_JSON;
+			this.url = baseUrl + (baseUrl.endsWith("/") ? "" : "/") + "api/v1/spans";
+		}
+		else {
+			throw new UnsupportedOperationException(
+					"Unsupported encoding: " + this.encoding.name());
+		}
+		this.messageEncoder = BytesMessageEncoder.forEncoding(this.encoding);
+		this.compressionEnabled = compressionEnabled;
+		this.compressionMinRequestSize = compressionMinRequestSize;
+		this.metrics = metrics;
+		this.maxInFlightRequests = maxInFlightRequests;
+		this.inFlightRequests = new Semaphore(maxInFlightRequests);
+		this.closeTimeout = closeTimeout;
+	}
+
+	@Override
+	public Encoding encoding() {
+		return this.encoding;
+	}
+
+	@Override
+	public int messageMaxBytes() {
+		// This will drop a span larger than 5MiB. Note: values like 512KiB benchmark
+		// better.
+		return 5 * 1024 * 1024;
+	}
+
+	@Override
+	public int messageSizeInBytes(List<byte[]> spans) {
+		return encoding().listSizeInBytes(spans);
+	}
+
+	@Override
+	public Call<Void> sendSpans(List<byte[]> encodedSpans) {
+		if (this.closeCalled) {
+			throw new IllegalStateException("close");
+		}
+		return new HttpPostCall(this.messageEncoder.encode(encodedSpans),
+				encodedSpans.size());
+	}
+
+	/**
+	 * Sends an empty json message to the configured endpoint.
+	 */
+	@Override
+	public CheckResult check() {
+		try {
+			post(new byte[] { '[', ']' }).block();
+			return CheckResult.OK;
+		}
+		catch (Exception e) {
+			return CheckResult.failed(e);
+		}
+	}
+
+	/**
+	 * Waits up to the close timeout for the batches that are still being sent.
+	 */
+	@Override
+	public void close() {
+		if (this.closeCalled) {
+			return;
+		}
+		this.closeCalled = true;
+		try {
+			if (this.inFlightRequests.tryAcquire(this.maxInFlightRequests,
+					this.closeTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+				this.inFlightRequests.release(this.maxInFlightRequests);
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	Mono<Void> post(byte[] message) {
+		boolean compress = this.compressionEnabled
+				&& message.length >= this.compressionMinRequestSize;
+		byte[] body = compress ? GZipCompressor.gzip(message) : message;
+		return this.webClient.post().uri(this.url).contentType(this.mediaType)
+				.headers(headers -> {
+					if (compress) {
+						headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+					}
+				}).bodyValue(body).retrieve().bodyToMono(Void.class);
+	}
+
+	class HttpPostCall extends Call.Base<Void> {
+
+		private final byte[] message;
+
+		private final int spanCount;
+
+		HttpPostCall(byte[] message, int spanCount) {
+			this.message = message;
+			this.spanCount = spanCount;
+		}
+
+		@Override
+		protected Void doExecute() throws IOException {
+			try {
+				WebClientSender.this.inFlightRequests.acquire();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException(e.getMessage());
+			}
+			postInFlight().subscribe(null, this::dropped);
+			return null;
+		}
+
+		/**
+		 * Doesn't wait for a free slot, as the caller expects not to be blocked. The
+		 * message is failed instead when {@code maxInFlightRequests} batches are already
+		 * being sent.
+		 */
+		@Override
+		protected void doEnqueue(Callback<Void> callback) {
+			if (!WebClientSender.this.inFlightRequests.tryAcquire()) {
+				callback.onError(new IllegalStateException(
+						"[" + WebClientSender.this.maxInFlightRequests
+								+ "] requests are already in flight"));
+				return;
+			}
+			postInFlight().subscribe(null, callback::onError,
+					() -> callback.onSuccess(null));
+		}
+
+		/**
+		 * Releases the slot acquired by the caller once the request completes.
+		 */
+		private Mono<Void> postInFlight() {
+			return Mono.defer(() -> post(this.message)).doFinally(
+					signal -> WebClientSender.this.inFlightRequests.release());
+		}
+
+		private void dropped(Throwable error) {
+			WebClientSender.this.metrics.incrementMessagesDropped(error);
+			WebClientSender.this.metrics.incrementSpansDropped(this.spanCount);
+			if (log.isWarnEnabled()) {
+				log.warn("Dropped " + this.spanCount + " spans due to "
+						+ error.getClass().getSimpleName() + "(" + error.getMessage()
+						+ ")");
+			}
+		}
+
+		@Override
+		public Call<Void> clone() {
+			return new HttpPostCall(this.message, this.spanCount);
+		}
+
+	}
+
+}
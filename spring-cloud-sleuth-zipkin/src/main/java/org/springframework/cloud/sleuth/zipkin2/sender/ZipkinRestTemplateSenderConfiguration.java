@@ -18,6 +18,7 @@ package org.springframework.cloud.sleuth.zipkin2.sender;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -38,7 +39,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
@@ -138,6 +141,10 @@ interface ZipkinUrlExtractor {
  * Resolves at runtime where the Zipkin server is. If there's no discovery client then
  * {@link URI} from the properties is taken. Otherwise service discovery is pinged for
  * current Zipkin address.
+ *
+ * The resolved instance is reused for {@link ZipkinProperties#getInstanceCacheTtl()}
+ * seconds. When sending to it fails, another instance is picked and the message is sent
+ * to it once.
  */
 class ZipkinRestTemplateWrapper extends RestTemplate {
 
@@ -147,6 +154,8 @@ class ZipkinRestTemplateWrapper extends RestTemplate {
 
 	private final ZipkinUrlExtractor extractor;
 
+	private volatile ResolvedInstance resolvedInstance;
+
 	ZipkinRestTemplateWrapper(ZipkinProperties zipkinProperties,
 			ZipkinUrlExtractor extractor) {
 		this.zipkinProperties = zipkinProperties;
@@ -157,9 +166,38 @@ class ZipkinRestTemplateWrapper extends RestTemplate {
 	protected <T> T doExecute(URI originalUrl, HttpMethod method,
 			RequestCallback requestCallback, ResponseExtractor<T> responseExtractor)
 			throws RestClientException {
+		ResolvedInstance instance = resolvedInstance(originalUrl);
+		try {
+			return super.doExecute(instance.uri, method, requestCallback,
+					responseExtractor);
+		}
+		catch (ResourceAccessException | HttpServerErrorException e) {
+			this.resolvedInstance = null;
+			ResolvedInstance next = resolvedInstance(originalUrl);
+			if (next.instance.equals(instance.instance)) {
+				throw e;
+			}
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to send spans to [" + instance.instance
+						+ "], will retry with [" + next.instance + "]", e);
+			}
+			return super.doExecute(next.uri, method, requestCallback,
+					responseExtractor);
+		}
+	}
+
+	private ResolvedInstance resolvedInstance(URI originalUrl) {
+		ResolvedInstance instance = this.resolvedInstance;
+		long now = System.nanoTime();
+		if (instance != null && instance.isValidFor(originalUrl, now)) {
+			return instance;
+		}
 		URI uri = this.extractor.zipkinUrl(this.zipkinProperties);
-		URI newUri = resolvedZipkinUri(originalUrl, uri);
-		return super.doExecute(newUri, method, requestCallback, responseExtractor);
+		instance = new ResolvedInstance(uri, originalUrl,
+				resolvedZipkinUri(originalUrl, uri), now + TimeUnit.SECONDS
+						.toNanos(this.zipkinProperties.getInstanceCacheTtl()));
+		this.resolvedInstance = instance;
+		return instance;
 	}
 
 	private URI resolvedZipkinUri(URI originalUrl, URI resolvedZipkinUri) {
@@ -178,6 +216,29 @@ class ZipkinRestTemplateWrapper extends RestTemplate {
 		}
 	}
 
+	private static final class ResolvedInstance {
+
+		final URI instance;
+
+		final URI originalUrl;
+
+		final URI uri;
+
+		final long expiresAtNanos;
+
+		ResolvedInstance(URI instance, URI originalUrl, URI uri, long expiresAtNanos) {
+			this.instance = instance;
+			this.originalUrl = originalUrl;
+			this.uri = uri;
+			this.expiresAtNanos = expiresAtNanos;
+		}
+
+		boolean isValidFor(URI originalUrl, long now) {
+			return now - this.expiresAtNanos < 0 && this.originalUrl.equals(originalUrl);
+		}
+
+	}
+
 }
 
 class NoOpZipkinLoadBalancer implements ZipkinLoadBalancer {
@@ -38,6 +38,7 @@ public class ZipkinSenderConfigurationImportSelector implements ImportSelector {
 		Map<String, String> mappings = new LinkedHashMap<>();
 		mappings.put("rabbit", ZipkinRabbitSenderConfiguration.class.getName());
 		mappings.put("kafka", ZipkinKafkaSenderConfiguration.class.getName());
+		mappings.put("webclient", ZipkinWebClientSenderConfiguration.class.getName());
 		mappings.put("web", ZipkinRestTemplateSenderConfiguration.class.getName());
 		MAPPINGS = Collections.unmodifiableMap(mappings);
 	}
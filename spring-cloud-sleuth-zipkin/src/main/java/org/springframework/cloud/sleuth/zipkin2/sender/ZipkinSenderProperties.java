@@ -32,6 +32,13 @@ public class ZipkinSenderProperties {
 	 */
 	private SenderType type;
 
+	/**
+	 * Maximum number of batches of spans that the {@link SenderType#WEBCLIENT} sender
+	 * sends at the same time. When reached, the reporter waits for one of them to
+	 * complete.
+	 */
+	private int maxInFlightRequests = 4;
+
 	public SenderType getType() {
 		return this.type;
 	}
@@ -40,6 +47,14 @@ public class ZipkinSenderProperties {
 		this.type = type;
 	}
 
+	public int getMaxInFlightRequests() {
+		return this.maxInFlightRequests;
+	}
+
+	public void setMaxInFlightRequests(int maxInFlightRequests) {
+		this.maxInFlightRequests = maxInFlightRequests;
+	}
+
 	/**
 	 * Types of a sender.
 	 */
@@ -58,7 +73,12 @@ public class ZipkinSenderProperties {
 		/**
 		 * HTTP based sender.
 		 */
-		WEB
+		WEB,
+
+		/**
+		 * Non-blocking HTTP based sender that uses a {@code WebClient}.
+		 */
+		WEBCLIENT
 
 	}
 
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2.sender;
+
+import java.time.Duration;
+
+import zipkin2.reporter.ReporterMetrics;
+import zipkin2.reporter.Sender;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.sleuth.zipkin2.ZipkinAutoConfiguration;
+import org.springframework.cloud.sleuth.zipkin2.ZipkinProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+@ConditionalOnClass(WebClient.class)
+@ConditionalOnMissingBean(name = ZipkinAutoConfiguration.SENDER_BEAN_NAME)
+@Conditional(ZipkinSenderCondition.class)
+@ConditionalOnProperty(value = "spring.zipkin.sender.type", havingValue = "webclient")
+@EnableConfigurationProperties(ZipkinSenderProperties.class)
+class ZipkinWebClientSenderConfiguration {
+
+	@Bean(ZipkinAutoConfiguration.SENDER_BEAN_NAME)
+	Sender webClientSender(ZipkinProperties zipkin,
+			ZipkinSenderProperties senderProperties, ReporterMetrics reporterMetrics) {
+		return new WebClientSender(WebClient.create(), zipkin.getBaseUrl(),
+				zipkin.getEncoder(), zipkin.getCompression().isEnabled(),
+				zipkin.getCompression().getMinRequestSize(), reporterMetrics,
+				senderProperties.getMaxInFlightRequests(),
+				Duration.ofSeconds(zipkin.getCloseTimeout()));
+	}
+
+}
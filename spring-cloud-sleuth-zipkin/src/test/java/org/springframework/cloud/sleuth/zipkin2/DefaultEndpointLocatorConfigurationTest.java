@@ -20,6 +20,7 @@ import java.net.InetAddress;
 import java.net.URI;
 import java.net.UnknownHostException;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -27,6 +28,11 @@ import org.mockito.Mockito;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.boot.web.server.WebServerException;
+import org.springframework.cloud.client.discovery.event.InstanceRegisteredEvent;
 import org.springframework.cloud.client.serviceregistry.Registration;
 import org.springframework.cloud.commons.util.InetUtils;
 import org.springframework.cloud.commons.util.InetUtilsProperties;
@@ -170,6 +176,92 @@ public class DefaultEndpointLocatorConfigurationTest {
 		assertThat(locator.local().port()).isEqualTo(8080);
 	}
 
+	@Test
+	public void endpointIsCached() throws UnknownHostException {
+		DefaultEndpointLocator locator = new DefaultEndpointLocator(null,
+				new ServerProperties(), this.environment, new ZipkinProperties(),
+				localAddress(ADDRESS1234));
+
+		assertThat(locator.local()).isSameAs(locator.local());
+	}
+
+	@Test
+	public void portFromReactiveWebServerInitializedEvent() throws UnknownHostException {
+		DefaultEndpointLocator locator = new DefaultEndpointLocator(null,
+				new ServerProperties(), this.environment, new ZipkinProperties(),
+				localAddress(ADDRESS1234));
+		assertThat(locator.local().port()).isEqualTo(8080);
+
+		locator.onApplicationEvent(webServerInitialized(1234, null));
+
+		assertThat(locator.local().port()).isEqualTo(1234);
+	}
+
+	@Test
+	public void portOfManagementServerIsIgnored() throws UnknownHostException {
+		DefaultEndpointLocator locator = new DefaultEndpointLocator(null,
+				new ServerProperties(), this.environment, new ZipkinProperties(),
+				localAddress(ADDRESS1234));
+
+		locator.onApplicationEvent(webServerInitialized(9090, "management"));
+
+		assertThat(locator.local().port()).isEqualTo(8080);
+	}
+
+	@Test
+	public void endpointIsRecomputedWhenInstanceGetsRegistered()
+			throws UnknownHostException {
+		MockEnvironment environment = new MockEnvironment();
+		environment.setProperty("spring.application.name", "foo");
+		DefaultEndpointLocator locator = new DefaultEndpointLocator(null,
+				new ServerProperties(), environment, new ZipkinProperties(),
+				localAddress(ADDRESS1234));
+		assertThat(locator.local().serviceName()).isEqualTo("foo");
+
+		environment.setProperty("spring.application.name", "bar");
+		assertThat(locator.local().serviceName()).isEqualTo("foo");
+		locator.onApplicationEvent(new InstanceRegisteredEvent<>(this, null));
+
+		assertThat(locator.local().serviceName()).isEqualTo("bar");
+	}
+
+	@Test
+	public void endpointCreatedBeforeInvalidationIsNotCached()
+			throws UnknownHostException {
+		AtomicReference<DefaultEndpointLocator> locator = new AtomicReference<>();
+		MockEnvironment environment = new MockEnvironment() {
+			@Override
+			public String getProperty(String key, String defaultValue) {
+				String value = super.getProperty(key, defaultValue);
+				if ("foo".equals(value)) {
+					// the instance gets registered while the endpoint is created
+					setProperty("spring.application.name", "bar");
+					locator.get().onApplicationEvent(
+							new InstanceRegisteredEvent<>(this, null));
+				}
+				return value;
+			}
+		};
+		environment.setProperty("spring.application.name", "foo");
+		locator.set(new DefaultEndpointLocator(null, new ServerProperties(),
+				environment, new ZipkinProperties(), localAddress(ADDRESS1234)));
+
+		assertThat(locator.get().local().serviceName()).isEqualTo("foo");
+		assertThat(locator.get().local().serviceName()).isEqualTo("bar");
+	}
+
+	private WebServerInitializedEvent webServerInitialized(int port,
+			String serverNamespace) {
+		ReactiveWebServerApplicationContext context = new ReactiveWebServerApplicationContext();
+		context.setServerNamespace(serverNamespace);
+		return new WebServerInitializedEvent(new FixedPortWebServer(port)) {
+			@Override
+			public ReactiveWebServerApplicationContext getApplicationContext() {
+				return context;
+			}
+		};
+	}
+
 	private InetUtils localAddress(byte[] address) throws UnknownHostException {
 		InetUtils mocked = Mockito.spy(new InetUtils(new InetUtilsProperties()));
 		Mockito.when(mocked.findFirstNonLoopbackAddress())
@@ -237,4 +329,29 @@ public class DefaultEndpointLocatorConfigurationTest {
 
 	}
 
+	static class FixedPortWebServer implements WebServer {
+
+		private final int port;
+
+		FixedPortWebServer(int port) {
+			this.port = port;
+		}
+
+		@Override
+		public void start() throws WebServerException {
+
+		}
+
+		@Override
+		public void stop() throws WebServerException {
+
+		}
+
+		@Override
+		public int getPort() {
+			return this.port;
+		}
+
+	}
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class DefaultZipkinRestTemplateCustomizerTests {
+
+	@Rule
+	public MockWebServer server = new MockWebServer();
+
+	@Test
+	public void should_gzip_requests_above_the_minimum_size() throws Exception {
+		RestTemplate restTemplate = restTemplate(10);
+		this.server.enqueue(new MockResponse());
+		String body = repeat("span", 100);
+
+		restTemplate.postForObject(this.server.url("/").uri(), body, String.class);
+
+		RecordedRequest request = this.server.takeRequest();
+		then(request.getHeader("Content-Encoding")).isEqualTo("gzip");
+		then(gunzip(request.getBody().readByteArray())).isEqualTo(body);
+	}
+
+	@Test
+	public void should_not_gzip_requests_below_the_minimum_size() throws Exception {
+		RestTemplate restTemplate = restTemplate(1024);
+		this.server.enqueue(new MockResponse());
+
+		restTemplate.postForObject(this.server.url("/").uri(), "span", String.class);
+
+		RecordedRequest request = this.server.takeRequest();
+		then(request.getHeader("Content-Encoding")).isNull();
+		then(request.getBody().readUtf8()).isEqualTo("span");
+	}
+
+	@Test
+	public void should_reuse_the_compressor_for_consecutive_bodies() throws Exception {
+		DefaultZipkinRestTemplateCustomizer.GZipCompressor compressor = new DefaultZipkinRestTemplateCustomizer.GZipCompressor();
+		String big = repeat("a much longer span", 100000);
+
+		then(gunzip(compressor.compress(bytes(big)))).isEqualTo(big);
+		then(gunzip(compressor.compress(bytes("span")))).isEqualTo("span");
+		then(gunzip(compressor.compress(new byte[0]))).isEmpty();
+	}
+
+	private RestTemplate restTemplate(int minRequestSize) {
+		ZipkinProperties properties = new ZipkinProperties();
+		properties.getCompression().setEnabled(true);
+		properties.getCompression().setMinRequestSize(minRequestSize);
+		RestTemplate restTemplate = new RestTemplate();
+		new DefaultZipkinRestTemplateCustomizer(properties).customize(restTemplate);
+		return restTemplate;
+	}
+
+	private String repeat(String value, int times) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < times; i++) {
+			builder.append(value).append(i);
+		}
+		return builder.toString();
+	}
+
+	private byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private String gunzip(byte[] gzipped) throws IOException {
+		try (InputStream stream = new GZIPInputStream(
+				new ByteArrayInputStream(gzipped))) {
+			return StreamUtils.copyToString(stream, StandardCharsets.UTF_8);
+		}
+	}
+
+}
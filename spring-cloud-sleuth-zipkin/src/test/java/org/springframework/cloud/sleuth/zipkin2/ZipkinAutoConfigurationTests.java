@@ -171,6 +171,22 @@ public class ZipkinAutoConfigurationTests {
 		this.context.close();
 	}
 
+	@Test
+	public void canOverrideBySenderToWebClient() throws Exception {
+		this.context = new AnnotationConfigApplicationContext();
+		environment().setProperty("spring.zipkin.sender.type", "webclient");
+		this.context.register(PropertyPlaceholderAutoConfiguration.class,
+				RabbitAutoConfiguration.class, KafkaAutoConfiguration.class,
+				ZipkinAutoConfiguration.class, TraceAutoConfiguration.class,
+				ZipkinBackwardsCompatibilityAutoConfiguration.class);
+		this.context.refresh();
+
+		then(this.context.getBean(Sender.class).getClass().getName())
+				.contains("WebClientSender");
+
+		this.context.close();
+	}
+
 	@Test
 	public void canOverrideBySenderAndIsCaseInsensitive() throws Exception {
 		this.context = new AnnotationConfigApplicationContext();
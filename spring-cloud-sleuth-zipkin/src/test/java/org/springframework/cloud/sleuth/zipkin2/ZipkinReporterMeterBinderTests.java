@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import zipkin2.reporter.InMemoryReporterMetrics;
+import zipkin2.reporter.ReporterMetrics;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class ZipkinReporterMeterBinderTests {
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	public void should_expose_the_reporter_metrics() {
+		InMemoryReporterMetrics metrics = new InMemoryReporterMetrics();
+		new ZipkinReporterMeterBinder(metrics).bindTo(this.registry);
+
+		metrics.incrementSpans(5);
+		metrics.incrementSpansDropped(2);
+		metrics.incrementMessages();
+		metrics.incrementMessagesDropped(new IllegalStateException());
+		metrics.updateQueuedSpans(3);
+		metrics.updateQueuedBytes(300);
+
+		then(this.registry.get("zipkin.reporter.spans").functionCounter().count())
+				.isEqualTo(5);
+		then(this.registry.get("zipkin.reporter.spans.dropped").functionCounter()
+				.count()).isEqualTo(2);
+		then(this.registry.get("zipkin.reporter.messages").functionCounter().count())
+				.isEqualTo(1);
+		then(this.registry.get("zipkin.reporter.messages.dropped").functionCounter()
+				.count()).isEqualTo(1);
+		then(this.registry.get("zipkin.reporter.queued.spans").gauge().value())
+				.isEqualTo(3);
+		then(this.registry.get("zipkin.reporter.queued.bytes").gauge().value())
+				.isEqualTo(300);
+	}
+
+	@Test
+	public void should_not_register_meters_for_other_reporter_metrics() {
+		new ZipkinReporterMeterBinder(ReporterMetrics.NOOP_METRICS).bindTo(this.registry);
+
+		then(this.registry.getMeters()).isEmpty();
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2.sender;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.Okio;
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import zipkin2.Call;
+import zipkin2.Callback;
+import zipkin2.Span;
+import zipkin2.codec.Encoding;
+import zipkin2.codec.SpanBytesEncoder;
+import zipkin2.reporter.InMemoryReporterMetrics;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.sleuth.zipkin2.sender.RestTemplateSenderTest.SPAN;
+import static zipkin2.codec.SpanBytesEncoder.JSON_V2;
+
+public class WebClientSenderTest {
+
+	@Rule
+	public MockWebServer server = new MockWebServer();
+
+	InMemoryReporterMetrics metrics = new InMemoryReporterMetrics();
+
+	WebClientSender sender = sender(false, 2);
+
+	@After
+	public void close() {
+		this.sender.close();
+	}
+
+	@Test
+	public void jsonIsNormal() throws Exception {
+		this.server.enqueue(new MockResponse());
+
+		send(SPAN).execute();
+
+		RecordedRequest request = this.server.takeRequest();
+		assertThat(request.getPath()).isEqualTo("/api/v2/spans");
+		assertThat(request.getHeader("Content-Type")).isEqualTo("application/json");
+		assertThat(request.getBody().readUtf8())
+				.isEqualTo("[" + new String(JSON_V2.encode(SPAN), "UTF-8") + "]");
+	}
+
+	@Test
+	public void gzipsTheMessageWhenCompressionIsEnabled() throws Exception {
+		this.server.enqueue(new MockResponse());
+		this.sender.close();
+		this.sender = sender(true, 2);
+
+		send(SPAN).execute();
+
+		RecordedRequest request = this.server.takeRequest();
+		assertThat(request.getHeader("Content-Encoding")).isEqualTo("gzip");
+		Buffer body = new Buffer();
+		body.writeAll(Okio.source(new GZIPInputStream(request.getBody().inputStream())));
+		assertThat(body.readUtf8())
+				.isEqualTo("[" + new String(JSON_V2.encode(SPAN), "UTF-8") + "]");
+	}
+
+	@Test
+	public void sendsSeveralMessagesAtTheSameTime() throws Exception {
+		this.server.enqueue(new MockResponse().setBodyDelay(200, TimeUnit.MILLISECONDS));
+		this.server.enqueue(new MockResponse().setBodyDelay(200, TimeUnit.MILLISECONDS));
+
+		send(SPAN).execute();
+		send(SPAN).execute();
+
+		assertThat(this.server.takeRequest(100, TimeUnit.MILLISECONDS)).isNotNull();
+		assertThat(this.server.takeRequest(100, TimeUnit.MILLISECONDS)).isNotNull();
+	}
+
+	@Test
+	public void countsTheDroppedSpansOfFailedMessages() throws Exception {
+		this.server.enqueue(new MockResponse().setResponseCode(500));
+
+		send(SPAN, SPAN).execute();
+
+		Awaitility.await().untilAsserted(() -> {
+			assertThat(this.metrics.messagesDropped()).isEqualTo(1);
+			assertThat(this.metrics.spansDropped()).isEqualTo(2);
+		});
+	}
+
+	@Test
+	public void failsEnqueuedMessagesWhenTooManyRequestsAreInFlight() throws Exception {
+		this.server.enqueue(new MockResponse().setBodyDelay(200, TimeUnit.MILLISECONDS));
+		this.server.enqueue(new MockResponse().setBodyDelay(200, TimeUnit.MILLISECONDS));
+		AtomicReference<Throwable> error = new AtomicReference<>();
+
+		send(SPAN).execute();
+		send(SPAN).execute();
+		send(SPAN).enqueue(new Callback<Void>() {
+			@Override
+			public void onSuccess(Void value) {
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				error.set(t);
+			}
+		});
+
+		assertThat(error.get()).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("[2] requests are already in flight");
+	}
+
+	WebClientSender sender(boolean compressionEnabled, int maxInFlightRequests) {
+		return new WebClientSender(WebClient.create(), this.server.url("/").toString(),
+				JSON_V2, compressionEnabled, 0, this.metrics, maxInFlightRequests,
+				Duration.ofSeconds(1));
+	}
+
+	Call<Void> send(Span... spans) {
+		SpanBytesEncoder bytesEncoder = this.sender.encoding() == Encoding.JSON
+				? SpanBytesEncoder.JSON_V2 : SpanBytesEncoder.PROTO3;
+		return this.sender
+				.sendSpans(Stream.of(spans).map(bytesEncoder::encode).collect(toList()));
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2013-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2.sender;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.springframework.cloud.sleuth.zipkin2.ZipkinProperties;
+import org.springframework.web.client.ResourceAccessException;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+public class ZipkinRestTemplateWrapperTest {
+
+	@Rule
+	public MockWebServer server = new MockWebServer();
+
+	ZipkinProperties zipkinProperties = new ZipkinProperties();
+
+	URI originalUrl = URI.create("http://zipkin/api/v2/spans");
+
+	@Test
+	public void should_reuse_the_resolved_instance_until_the_ttl_expires() {
+		AtomicInteger lookups = new AtomicInteger();
+		ZipkinRestTemplateWrapper restTemplate = new ZipkinRestTemplateWrapper(
+				this.zipkinProperties, properties -> {
+					lookups.incrementAndGet();
+					return this.server.url("/").uri();
+				});
+		this.server.enqueue(new MockResponse());
+		this.server.enqueue(new MockResponse());
+
+		restTemplate.postForObject(this.originalUrl, "spans", String.class);
+		restTemplate.postForObject(this.originalUrl, "spans", String.class);
+
+		then(lookups).hasValue(1);
+		then(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void should_resolve_the_instance_for_each_message_when_ttl_is_zero() {
+		this.zipkinProperties.setInstanceCacheTtl(0);
+		AtomicInteger lookups = new AtomicInteger();
+		ZipkinRestTemplateWrapper restTemplate = new ZipkinRestTemplateWrapper(
+				this.zipkinProperties, properties -> {
+					lookups.incrementAndGet();
+					return this.server.url("/").uri();
+				});
+		this.server.enqueue(new MockResponse());
+		this.server.enqueue(new MockResponse());
+
+		restTemplate.postForObject(this.originalUrl, "spans", String.class);
+		restTemplate.postForObject(this.originalUrl, "spans", String.class);
+
+		then(lookups).hasValue(2);
+	}
+
+	@Test
+	public void should_fail_over_to_the_next_instance() throws Exception {
+		Iterator<URI> instances = Arrays.asList(unavailableInstance(),
+				this.server.url("/").uri(), this.server.url("/").uri()).iterator();
+		ZipkinRestTemplateWrapper restTemplate = new ZipkinRestTemplateWrapper(
+				this.zipkinProperties, properties -> instances.next());
+		this.server.enqueue(new MockResponse());
+		this.server.enqueue(new MockResponse());
+
+		restTemplate.postForObject(this.originalUrl, "spans", String.class);
+		restTemplate.postForObject(this.originalUrl, "spans", String.class);
+
+		then(this.server.takeRequest().getPath()).isEqualTo("/api/v2/spans");
+		then(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void should_not_retry_when_there_is_no_other_instance() throws Exception {
+		URI unavailable = unavailableInstance();
+		AtomicInteger lookups = new AtomicInteger();
+		ZipkinRestTemplateWrapper restTemplate = new ZipkinRestTemplateWrapper(
+				this.zipkinProperties, properties -> {
+					lookups.incrementAndGet();
+					return unavailable;
+				});
+
+		thenThrownBy(() -> restTemplate.postForObject(this.originalUrl, "spans",
+				String.class)).isInstanceOf(ResourceAccessException.class);
+		then(lookups).hasValue(2);
+	}
+
+	private URI unavailableInstance() throws IOException {
+		MockWebServer unavailable = new MockWebServer();
+		unavailable.start();
+		URI uri = unavailable.url("/").uri();
+		unavailable.shutdown();
+		return uri;
+	}
+
+}